@@ -0,0 +1,45 @@
+package dev.challenge.benchmark;
+
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+/**
+ * Postgres for the database benchmarks: a throwaway postgres:16 container, or an existing server when
+ * {@code -Dbenchmark.jdbc-url} is set (with {@code benchmark.user} / {@code benchmark.password}).
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final PGSimpleDataSource dataSource = new PGSimpleDataSource();
+
+    private BenchmarkDatabase(PostgreSQLContainer<?> container, String url, String user, String password) {
+        this.container = container;
+        dataSource.setUrl(url);
+        dataSource.setUser(user);
+        dataSource.setPassword(password);
+        // Same driver setting as the services' datasource URLs
+        dataSource.setReWriteBatchedInserts(true);
+    }
+
+    static BenchmarkDatabase start() {
+        String url = System.getProperty("benchmark.jdbc-url");
+        if (url != null) {
+            return new BenchmarkDatabase(null, url, System.getProperty("benchmark.user", "postgres"),
+                    System.getProperty("benchmark.password", "postgres"));
+        }
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16");
+        container.start();
+        return new BenchmarkDatabase(container, container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    DataSource dataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        if (container != null) container.stop();
+    }
+}
@@ -0,0 +1,150 @@
+package dev.challenge.benchmark;
+
+import com.opencsv.CSVWriter;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The two engines of service-c's sequential CSV export on the same pedido table: COPY ... TO STDOUT piped
+ * straight through vs a JDBC cursor (fetch size 2000) encoded by OpenCSV. The queries and formatting are
+ * the ones in service-c's PedidosCsv; the output goes to a counting sink, so the figures are database
+ * plus encoding cost without the network. Reports rows/sec and bytes written, best of a few rounds.
+ */
+public final class ExportEngineBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ROUNDS = 5;
+    private static final int FETCH_SIZE = 2000;
+    private static final int FLUSH_EVERY = 5000;
+
+    private static final String[] HEADER = {
+            "id", "descricao", "valor", "id_usuario", "nome_entregador", "telefone_entregador"
+    };
+
+    private static final String SELECT_ALL = """
+            SELECT id, descricao, valor, id_usuario, nome_entregador, telefone_entregador
+              FROM pedido
+             ORDER BY id""";
+
+    private static final String COPY_ALL = """
+            COPY (SELECT id, descricao, trim_scale(valor) AS valor, id_usuario, nome_entregador, telefone_entregador
+                    FROM pedido ORDER BY id) TO STDOUT WITH (FORMAT csv, HEADER)""";
+
+    private interface Engine {
+        long export(Connection connection, OutputStream out) throws SQLException, IOException;
+    }
+
+    private ExportEngineBenchmark() {}
+
+    public static void main(String[] args) throws SQLException, IOException {
+        try (BenchmarkDatabase database = BenchmarkDatabase.start()) {
+            DataSource dataSource = database.dataSource();
+            seed(dataSource);
+            System.out.printf("%-8s %12s %12s %14s%n", "engine", "rows", "rows/sec", "bytes");
+            run(dataSource, "copy", ExportEngineBenchmark::copy);
+            run(dataSource, "cursor", ExportEngineBenchmark::cursor);
+        }
+    }
+
+    private static void run(DataSource dataSource, String name, Engine engine) throws SQLException, IOException {
+        double best = 0;
+        long bytes = 0;
+        long rows = 0;
+        // The first round warms the JIT and the buffer cache and is not counted.
+        for (int round = 0; round <= ROUNDS; round++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                CountingSink sink = new CountingSink();
+                long started = System.nanoTime();
+                rows = engine.export(connection, sink);
+                long elapsed = System.nanoTime() - started;
+                connection.commit();
+                if (round > 0) best = Math.max(best, rows * 1e9 / elapsed);
+                bytes = sink.count;
+            }
+        }
+        System.out.printf("%-8s %12d %12.0f %14d%n", name, rows, best, bytes);
+    }
+
+    private static long copy(Connection connection, OutputStream out) throws SQLException, IOException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(COPY_ALL, out);
+    }
+
+    private static long cursor(Connection connection, OutputStream out) throws SQLException, IOException {
+        long rows = 0;
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+             PreparedStatement select = connection.prepareStatement(SELECT_ALL)) {
+            writer.writeNext(HEADER, false);
+            select.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    writer.writeNext(row(rs), false);
+                    if (++rows % FLUSH_EVERY == 0) writer.flush();
+                }
+            }
+            writer.flush();
+        }
+        return rows;
+    }
+
+    private static String[] row(ResultSet rs) throws SQLException {
+        BigDecimal value = rs.getBigDecimal("valor");
+        return new String[]{
+                String.valueOf(rs.getLong("id")),
+                rs.getString("descricao"),
+                value == null ? "" : value.stripTrailingZeros().toPlainString(),
+                String.valueOf(rs.getLong("id_usuario")),
+                rs.getString("nome_entregador"),
+                rs.getString("telefone_entregador")
+        };
+    }
+
+    private static void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS pedido");
+            ddl.execute("""
+                    CREATE TABLE pedido (id BIGSERIAL PRIMARY KEY, descricao VARCHAR(255) NOT NULL,
+                                         valor NUMERIC(14,2) NOT NULL, id_usuario BIGINT NOT NULL,
+                                         nome_entregador VARCHAR(120), telefone_entregador VARCHAR(40))""");
+            ddl.execute("""
+                    INSERT INTO pedido (descricao, valor, id_usuario, nome_entregador, telefone_entregador)
+                    SELECT 'Pedido de teste ' || g, round((random() * 1000)::numeric, 2), g % 1000 + 1,
+                           'Entregador ' || g % 100, '+55 11 9' || lpad((g % 100000000)::text, 8, '0')
+                      FROM generate_series(1, %d) g""".formatted(ROWS));
+            ddl.execute("VACUUM ANALYZE pedido");
+        }
+    }
+
+    /** Discards the CSV and only counts its bytes. */
+    private static final class CountingSink extends FilterOutputStream {
+
+        private long count;
+
+        CountingSink() {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.challenge.benchmark;
+
+import dev.challenge.common.id.UuidV7;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Unique-key cost of the external id before and after V10: random v4 ids stored as text (the old
+ * VARCHAR(50) column) vs time-ordered v7 ids stored as native uuid. Loads the same number of rows into
+ * each table with batched inserts and reports rows/sec and the {@code pg_relation_size} of the unique
+ * index. Random keys land all over the B-tree and split pages; v7 keys append to its right edge.
+ */
+public final class ExternalIdKeyBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 50_000;
+
+    private ExternalIdKeyBenchmark() {}
+
+    public static void main(String[] args) throws SQLException {
+        try (BenchmarkDatabase database = BenchmarkDatabase.start()) {
+            DataSource dataSource = database.dataSource();
+            System.out.printf("%-8s %12s %12s %16s %16s%n", "key", "rows", "rows/sec", "index bytes", "bytes/row");
+            run(dataSource, "v4_text", "VARCHAR(50)", () -> UUID.randomUUID().toString());
+            run(dataSource, "v7_uuid", "UUID", UuidV7::next);
+        }
+    }
+
+    private static void run(DataSource dataSource, String key, String columnType, Supplier<Object> ids)
+            throws SQLException {
+        String table = "bench_external_id_" + key;
+        String index = table + "_key";
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("DROP TABLE IF EXISTS " + table);
+                ddl.execute("CREATE TABLE " + table + " (id BIGSERIAL PRIMARY KEY, external_id " + columnType
+                        + " NOT NULL, descricao VARCHAR(255) NOT NULL, CONSTRAINT " + index + " UNIQUE (external_id))");
+            }
+
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + table + " (external_id, descricao) VALUES (?, ?)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setString(2, "Pedido de teste " + i);
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0 || i == ROWS) insert.executeBatch();
+                    if (i % COMMIT_EVERY == 0 || i == ROWS) connection.commit();
+                }
+            }
+            long elapsed = System.nanoTime() - started;
+            connection.setAutoCommit(true);
+
+            long indexBytes;
+            try (PreparedStatement size = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+                size.setString(1, index);
+                try (ResultSet rs = size.executeQuery()) {
+                    rs.next();
+                    indexBytes = rs.getLong(1);
+                }
+            }
+            System.out.printf("%-8s %12d %12.0f %16d %16.1f%n", key, ROWS, ROWS * 1e9 / elapsed, indexBytes,
+                    (double) indexBytes / ROWS);
+        }
+    }
+}
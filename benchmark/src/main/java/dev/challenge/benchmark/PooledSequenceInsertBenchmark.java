@@ -0,0 +1,140 @@
+package dev.challenge.benchmark;
+
+import dev.challenge.common.id.UuidV7;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * IDENTITY vs pooled-sequence ids on Hibernate inserts of the order row, with the services' settings
+ * (jdbc.batch_size = 50, order_inserts, reWriteBatchedInserts). IDENTITY needs the generated key of every
+ * row, so Hibernate sends the inserts one by one; the pooled optimizer reserves 50 ids per sequence call
+ * and the inserts go out in batches. Reports rows/sec and the statements prepared for each strategy.
+ */
+public final class PooledSequenceInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int WARMUP_ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    private PooledSequenceInsertBenchmark() {}
+
+    @Entity(name = "IdentityOrder")
+    @Table(name = "bench_pedido_identity")
+    public static class IdentityOrder extends OrderColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+    }
+
+    @Entity(name = "PooledOrder")
+    @Table(name = "bench_pedido_pooled")
+    public static class PooledOrder extends OrderColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_pedido_pooled_id_seq")
+        @SequenceGenerator(name = "bench_pedido_pooled_id_seq", sequenceName = "bench_pedido_pooled_id_seq",
+                allocationSize = BATCH_SIZE)
+        private Long id;
+    }
+
+    /** Same columns as pedido. */
+    @MappedSuperclass
+    public abstract static class OrderColumns {
+        @Column(name = "descricao", nullable = false)
+        String description;
+        @Column(name = "valor", nullable = false, precision = 14, scale = 2)
+        BigDecimal value;
+        @Column(name = "id_usuario", nullable = false)
+        Long idUser;
+        @Column(name = "id_entregador", nullable = false)
+        Long idDelivery;
+        @Column(name = "external_id", nullable = false, unique = true)
+        UUID externalId;
+        @Column(name = "external_user_id", nullable = false)
+        UUID externalUserId;
+        @Column(name = "version", nullable = false)
+        long version;
+    }
+
+    public static void main(String[] args) {
+        try (BenchmarkDatabase database = BenchmarkDatabase.start();
+             SessionFactory sessionFactory = sessionFactory(database)) {
+            System.out.printf("%-10s %10s %12s %14s%n", "strategy", "rows", "rows/sec", "statements");
+            run(sessionFactory, "identity", IdentityOrder::new, "bench_pedido_identity");
+            run(sessionFactory, "pooled", PooledOrder::new, "bench_pedido_pooled");
+        }
+    }
+
+    private static void run(SessionFactory sessionFactory, String strategy, Supplier<? extends OrderColumns> factory,
+                            String table) {
+        insert(sessionFactory, factory, WARMUP_ROWS);
+        truncate(sessionFactory, table);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        insert(sessionFactory, factory, ROWS);
+        long elapsed = System.nanoTime() - started;
+
+        System.out.printf("%-10s %10d %12.0f %14d%n", strategy, ROWS, ROWS * 1e9 / elapsed,
+                statistics.getPrepareStatementCount());
+    }
+
+    private static void insert(SessionFactory sessionFactory, Supplier<? extends OrderColumns> factory, int rows) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < rows; i++) {
+                OrderColumns order = factory.get();
+                order.description = "Pedido de teste " + i;
+                order.value = new BigDecimal("129.90");
+                order.idUser = (long) i % 1_000 + 1;
+                order.idDelivery = (long) i % 100 + 1;
+                order.externalId = UuidV7.next();
+                order.externalUserId = UuidV7.next();
+                order.version = i;
+                session.persist(order);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    private static void truncate(SessionFactory sessionFactory, String table) {
+        sessionFactory.inTransaction(session ->
+                session.createNativeMutationQuery("TRUNCATE " + table).executeUpdate());
+    }
+
+    private static SessionFactory sessionFactory(BenchmarkDatabase database) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, database.dataSource())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .build();
+        return new MetadataSources(registry)
+                .addAnnotatedClass(IdentityOrder.class)
+                .addAnnotatedClass(PooledOrder.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+}
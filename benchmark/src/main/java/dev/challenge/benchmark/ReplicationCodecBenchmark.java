@@ -0,0 +1,103 @@
+package dev.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.challenge.common.dto.OrderBatchItemDTO;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
+import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.id.UuidV7;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.VersionClock;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON vs Smile on the replication batch payloads: bytes per record and encode/decode nanoseconds per
+ * record. Both mappers are built the way the services build them. Each round encodes or decodes a full
+ * batch of {@code sendBatchSize} records after a warm-up, so the JIT has settled before timing starts.
+ */
+public final class ReplicationCodecBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 50_000;
+
+    private static long sink;
+
+    private ReplicationCodecBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+        ObjectMapper smile = new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build();
+
+        List<OrderBatchItemDTO> orders = orderBatch();
+        List<UserBatchItemDTO> users = userBatch();
+        JavaType orderType = json.getTypeFactory().constructCollectionType(List.class, OrderBatchItemDTO.class);
+        JavaType userType = json.getTypeFactory().constructCollectionType(List.class, UserBatchItemDTO.class);
+
+        System.out.printf("%-8s %-6s %14s %16s %16s%n", "payload", "format", "bytes/record", "encode ns/rec", "decode ns/rec");
+        run("orders", "json", json, orders, orderType);
+        run("orders", "smile", smile, orders, orderType);
+        run("users", "json", json, users, userType);
+        run("users", "smile", smile, users, userType);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void run(String payload, String format, ObjectMapper mapper, List<?> batch, JavaType type)
+            throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(batch);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(batch).length;
+            sink += ((List<?>) mapper.readValue(encoded, type)).size();
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(batch).length;
+        }
+        long encodeNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += ((List<?>) mapper.readValue(encoded, type)).size();
+        }
+        long decodeNanos = System.nanoTime() - started;
+
+        long records = (long) MEASURED_ROUNDS * batch.size();
+        System.out.printf("%-8s %-6s %14.1f %16.1f %16.1f%n", payload, format,
+                (double) encoded.length / batch.size(), (double) encodeNanos / records, (double) decodeNanos / records);
+    }
+
+    private static List<OrderBatchItemDTO> orderBatch() {
+        VersionClock clock = new VersionClock(1);
+        List<OrderBatchItemDTO> items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String externalId = UuidV7.nextString();
+            OrderReplicaDTO data = new OrderReplicaDTO((long) i + 1, "Pedido de teste " + i,
+                    new BigDecimal("129.90").add(BigDecimal.valueOf(i)), externalId, "Entregador " + (i % 7),
+                    "+55 11 9" + String.format("%08d", i), UuidV7.nextString(), clock.next());
+            items.add(new OrderBatchItemDTO(i % 3 == 0 ? ReplicationOperation.CREATE : ReplicationOperation.UPDATE,
+                    externalId, data));
+        }
+        return items;
+    }
+
+    private static List<UserBatchItemDTO> userBatch() {
+        VersionClock clock = new VersionClock(1);
+        List<UserBatchItemDTO> items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String externalId = UuidV7.nextString();
+            UserDTO data = new UserDTO((long) i + 1, "Usuario " + i, "usuario" + i + "@example.com", externalId,
+                    clock.next());
+            items.add(new UserBatchItemDTO(ReplicationOperation.UPDATE, externalId, data));
+        }
+        return items;
+    }
+}
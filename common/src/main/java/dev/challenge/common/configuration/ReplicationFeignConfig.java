@@ -1,22 +1,35 @@
 package dev.challenge.common.configuration;
 
-import dev.challenge.common.replication.ReplicationFlagFilter;
+import dev.challenge.common.feign.ReplicationWireEncoder;
+import dev.challenge.common.replication.Replication;
+import dev.challenge.common.replication.WireProperties;
 import dev.challenge.common.security.AuthProperties;
+import feign.FeignException;
 import feign.Request;
 import feign.RequestInterceptor;
 import feign.Retryer;
+import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.UUID;
 
 @Configuration
 public class ReplicationFeignConfig {
 
     private final String token;
+    private final WireProperties.Format wireFormat;
 
-    public ReplicationFeignConfig(AuthProperties props) {
+    public ReplicationFeignConfig(AuthProperties props, WireProperties wire) {
         this.token = props.staticToken();
+        this.wireFormat = wire.format();
     }
 
     @Bean
@@ -25,8 +38,27 @@ public class ReplicationFeignConfig {
     }
 
     @Bean
-    public RequestInterceptor replicationFlagInterceptor() {
-        return template -> template.header(ReplicationFlagFilter.HEADER, "true");
+    public RequestInterceptor replicationOperationInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(Replication.OPERATION_HEADER)) {
+                template.header(Replication.OPERATION_HEADER, UUID.randomUUID().toString());
+            }
+        };
+    }
+
+    @Bean
+    public RequestInterceptor replicationAcceptInterceptor() {
+        return template -> {
+            if (wireFormat == WireProperties.Format.SMILE) {
+                template.header(HttpHeaders.ACCEPT, ReplicationWireEncoder.SMILE_MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            }
+        };
+    }
+
+    @Bean
+    public Encoder feignEncoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                MappingJackson2SmileHttpMessageConverter smileConverter) {
+        return new ReplicationWireEncoder(new SpringEncoder(messageConverters), wireFormat, smileConverter);
     }
 
     @Bean
@@ -47,7 +79,8 @@ public class ReplicationFeignConfig {
         return (methodKey, response) -> {
             int status = response.status();
             if (status >= 400 && status < 500) {
-                return new RuntimeException("Client error " + status + " at " + methodKey);
+                // Never retried, but still a FeignException so callers can read the status per call
+                return FeignException.errorStatus(methodKey, response);
             }
             return new ErrorDecoder.Default().decode(methodKey, response);
         };
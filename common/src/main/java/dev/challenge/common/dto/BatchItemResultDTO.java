@@ -0,0 +1,17 @@
+package dev.challenge.common.dto;
+
+import dev.challenge.common.replication.ReplicationOperation;
+
+public record BatchItemResultDTO(String externalId,
+                                 ReplicationOperation operation,
+                                 int status,
+                                 String message) {
+
+    public static BatchItemResultDTO of(String externalId, ReplicationOperation operation, int status, String message) {
+        return new BatchItemResultDTO(externalId, operation, status, message);
+    }
+
+    public boolean succeeded() {
+        return status >= 200 && status < 300;
+    }
+}
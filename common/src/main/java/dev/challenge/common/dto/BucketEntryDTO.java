@@ -0,0 +1,4 @@
+package dev.challenge.common.dto;
+
+public record BucketEntryDTO(String externalId, long version, String digest) {
+}
@@ -0,0 +1,6 @@
+package dev.challenge.common.dto;
+
+import java.util.List;
+
+public record MerkleNodesRequestDTO(int level, List<Integer> indexes) {
+}
@@ -0,0 +1,9 @@
+package dev.challenge.common.dto;
+
+import dev.challenge.common.replication.ReplicationAggregate;
+
+public record MerkleRootDTO(String snapshotId,
+                            ReplicationAggregate aggregate,
+                            int depth,
+                            String root) {
+}
@@ -0,0 +1,8 @@
+package dev.challenge.common.dto;
+
+import dev.challenge.common.replication.ReplicationOperation;
+
+public record OrderBatchItemDTO(ReplicationOperation operation,
+                                String externalId,
+                                OrderReplicaDTO data) {
+}
@@ -16,5 +16,6 @@ public record OrderDTO(Long id,
                        Long idDelivery,
                        String externalId,
                        @NotBlank(message = "externalUserId is required")
-                       String externalUserId) {
+                       String externalUserId,
+                       Long version) {
 }
@@ -15,5 +15,6 @@ public record OrderReplicaDTO(Long id,
                               @NotBlank(message = "deliveryPhone is required")
                               String deliveryPhone,
                               @NotBlank(message = "externalUserId is required")
-                              String externalUserId) {
+                              String externalUserId,
+                              Long version) {
 }
@@ -0,0 +1,17 @@
+package dev.challenge.common.dto;
+
+import java.util.List;
+
+public record PageDTO<T>(List<T> items,
+                         int size,
+                         String nextCursor,
+                         String next) {
+
+    public static <T> PageDTO<T> of(List<T> items, String nextCursor) {
+        return new PageDTO<>(items, items.size(), nextCursor, null);
+    }
+
+    public PageDTO<T> withNext(String link) {
+        return new PageDTO<>(items, size, nextCursor, link);
+    }
+}
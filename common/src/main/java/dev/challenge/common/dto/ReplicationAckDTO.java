@@ -0,0 +1,12 @@
+package dev.challenge.common.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cumulative acknowledgement: every frame up to {@code upTo} was applied. Only frames with at
+ * least one failed item carry their per-item results.
+ */
+public record ReplicationAckDTO(long upTo,
+                                Map<Long, List<BatchItemResultDTO>> failures) {
+}
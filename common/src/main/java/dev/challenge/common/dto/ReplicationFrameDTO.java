@@ -0,0 +1,10 @@
+package dev.challenge.common.dto;
+
+import java.util.List;
+
+public record ReplicationFrameDTO(long seq,
+                                  int origin,
+                                  String seen,
+                                  List<OrderBatchItemDTO> orders,
+                                  List<UserBatchItemDTO> users) {
+}
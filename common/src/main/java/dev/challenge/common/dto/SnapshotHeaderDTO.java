@@ -0,0 +1,11 @@
+package dev.challenge.common.dto;
+
+import dev.challenge.common.replication.ReplicationAggregate;
+
+/**
+ * First line of a snapshot export. {@code watermark} is the highest outbox id visible to the snapshot,
+ * reported for diagnostics only; it does not decide which events are replayed afterwards.
+ */
+public record SnapshotHeaderDTO(ReplicationAggregate aggregate,
+                                long watermark) {
+}
@@ -0,0 +1,8 @@
+package dev.challenge.common.dto;
+
+public record SnapshotLoadDTO(long users,
+                              long orders,
+                              long skipped,
+                              long watermark,
+                              long elapsedMs) {
+}
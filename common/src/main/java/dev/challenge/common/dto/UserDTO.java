@@ -10,4 +10,5 @@ public record UserDTO(Long id,
                       @NotBlank(message = "email is required")
                       @Email(message = "email must be valid")
                       String email,
-                      String externalId) {}
+                      String externalId,
+                      Long version) {}
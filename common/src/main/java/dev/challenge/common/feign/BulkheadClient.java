@@ -0,0 +1,79 @@
+package dev.challenge.common.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed per-target cap on in-flight calls. It wraps {@link ResilientClient}, so the adaptive limit
+ * moves freely underneath but never lets more than max-concurrent-per-target calls through,
+ * whatever replication.resilience.max-limit says.
+ */
+@Slf4j
+public class BulkheadClient implements Client {
+
+    private record Bulkhead(Semaphore permits, Counter rejected) {}
+
+    private final Client delegate;
+    private final int maxConcurrent;
+    private final long waitMs;
+    private final MeterRegistry registry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadClient(Client delegate, int maxConcurrent, long waitMs, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent;
+        this.waitMs = waitMs;
+        this.registry = registry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String target = target(request.url());
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(target, this::newBulkhead);
+        try {
+            if (!bulkhead.permits().tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                bulkhead.rejected().increment();
+                log.warn("Replication bulkhead full, call rejected. target={}, maxConcurrent={}", target, maxConcurrent);
+                throw new CallNotPermittedException(target, "Bulkhead full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException(target, "Interrupted waiting for bulkhead");
+        }
+        try {
+            return delegate.execute(request, options);
+        } finally {
+            bulkhead.permits().release();
+        }
+    }
+
+    private Bulkhead newBulkhead(String target) {
+        Semaphore permits = new Semaphore(maxConcurrent);
+        Gauge.builder("replication.http.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free in-flight slots towards the target")
+                .tag("target", target)
+                .register(registry);
+        Counter rejected = Counter.builder("replication.http.bulkhead.rejected")
+                .description("Calls rejected because the target bulkhead was full")
+                .tag("target", target)
+                .register(registry);
+        return new Bulkhead(permits, rejected);
+    }
+
+    private static String target(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+}
@@ -0,0 +1,18 @@
+package dev.challenge.common.feign;
+
+import lombok.Getter;
+
+/**
+ * Raised before a call leaves the process. It is deliberately not an IOException so Feign's
+ * retryer does not hammer an unhealthy peer; callers defer the work instead (the outbox retries it).
+ */
+@Getter
+public class CallNotPermittedException extends RuntimeException {
+
+    private final String target;
+
+    public CallNotPermittedException(String target, String reason) {
+        super(reason + " for " + target);
+        this.target = target;
+    }
+}
@@ -0,0 +1,119 @@
+package dev.challenge.common.feign;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last {@code windowSize} calls
+ * reaches the threshold, rejects calls while open, then lets a few trial calls through and closes
+ * again only if all of them succeed.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final boolean[] failures;
+    private final Consumer<State> onTransition;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private long openedAt;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    public CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openDurationMs,
+                          int halfOpenCalls, Consumer<State> onTransition) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.failures = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), failures.length);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) return false;
+            transition(State.HALF_OPEN);
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+        }
+        if (trialsInFlight >= halfOpenCalls) return false;
+        trialsInFlight++;
+        return true;
+    }
+
+    public synchronized void onResult(boolean success) {
+        switch (state) {
+            case HALF_OPEN -> {
+                trialsInFlight = Math.max(0, trialsInFlight - 1);
+                if (!success) {
+                    open();
+                } else if (++trialSuccesses >= halfOpenCalls) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                record(!success);
+                if (recorded >= minimumCalls && failed >= failureRateThreshold * recorded) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // late result of a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /** Gives back a slot taken by {@link #tryAcquire()} for a call that never reached the peer. */
+    public synchronized void cancel() {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) failed--;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) failed++;
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failed = 0;
+    }
+
+    private void transition(State to) {
+        if (state == to) return;
+        state = to;
+        onTransition.accept(to);
+    }
+}
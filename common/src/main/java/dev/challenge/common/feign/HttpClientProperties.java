@@ -0,0 +1,14 @@
+package dev.challenge.common.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.http")
+public record HttpClientProperties(@DefaultValue("200") int maxConnections,
+                                   @DefaultValue("50") int maxConnectionsPerRoute,
+                                   @DefaultValue("30000") long keepAliveMs,
+                                   @DefaultValue("300000") long connectionTtlMs,
+                                   @DefaultValue("2000") long validateAfterInactivityMs,
+                                   @DefaultValue("32") int maxConcurrentPerTarget,
+                                   @DefaultValue("1000") long bulkheadWaitMs) {
+}
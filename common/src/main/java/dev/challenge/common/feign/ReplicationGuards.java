@@ -0,0 +1,103 @@
+package dev.challenge.common.feign;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive concurrency limit and circuit breaker per target (scheme://host:port), shared by every
+ * replication transport towards that peer: the Feign calls and the WebSocket stream draw from the
+ * same limit and feed the same breaker.
+ */
+@Slf4j
+public class ReplicationGuards {
+
+    private record Guard(AimdLimiter limiter, CircuitBreaker breaker) {}
+
+    /** One admitted call. Exactly one of {@link #release} or {@link #cancel} must be called. */
+    public static final class Permit {
+
+        private final Guard guard;
+        private final long start = System.nanoTime();
+
+        private Permit(Guard guard) {
+            this.guard = guard;
+        }
+
+        public void release(boolean success) {
+            guard.limiter().release(System.nanoTime() - start, !success);
+            guard.breaker().onResult(success);
+        }
+
+        /** The call never reached the peer, so it says nothing about its health. */
+        public void cancel() {
+            guard.limiter().cancel();
+            guard.breaker().cancel();
+        }
+    }
+
+    private final ResilienceProperties props;
+    private final MeterRegistry registry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public ReplicationGuards(ResilienceProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+    }
+
+    public Permit acquire(String target) {
+        Guard guard = guards.computeIfAbsent(target, this::newGuard);
+        try {
+            if (!guard.limiter().tryAcquire(props.acquireWaitMs())) {
+                reject(target, "limit");
+                throw new CallNotPermittedException(target, "Concurrency limit reached");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException(target, "Interrupted waiting for concurrency slot");
+        }
+        if (!guard.breaker().tryAcquire()) {
+            guard.limiter().cancel();
+            reject(target, "circuit_open");
+            throw new CallNotPermittedException(target, "Circuit open");
+        }
+        return new Permit(guard);
+    }
+
+    public static String target(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private Guard newGuard(String target) {
+        AimdLimiter limiter = new AimdLimiter(props.initialLimit(), props.minLimit(), props.maxLimit(),
+                props.backoffRatio(), props.latencyThresholdMs());
+        CircuitBreaker breaker = new CircuitBreaker(props.failureRateThreshold(), props.slidingWindowSize(),
+                props.minimumCalls(), props.openDurationMs(), props.halfOpenCalls(), state -> {
+            log.warn("Replication circuit breaker changed state. target={}, state={}", target, state);
+            registry.counter("replication.breaker.transitions", "target", target, "state", state.name()).increment();
+        });
+
+        Gauge.builder("replication.limiter.limit", limiter, AimdLimiter::limit)
+                .description("Current adaptive concurrency limit towards the target")
+                .tag("target", target)
+                .register(registry);
+        Gauge.builder("replication.limiter.inflight", limiter, AimdLimiter::inFlight)
+                .description("Calls in flight towards the target")
+                .tag("target", target)
+                .register(registry);
+        Gauge.builder("replication.breaker.state", breaker, b -> b.state().ordinal())
+                .description("Circuit breaker state towards the target (0=closed, 1=open, 2=half-open)")
+                .tag("target", target)
+                .register(registry);
+        return new Guard(limiter, breaker);
+    }
+
+    private void reject(String target, String reason) {
+        registry.counter("replication.calls.rejected", "target", target, "reason", reason).increment();
+    }
+}
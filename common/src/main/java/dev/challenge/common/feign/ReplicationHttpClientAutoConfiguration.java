@@ -0,0 +1,70 @@
+package dev.challenge.common.feign;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration(beforeName = "org.springframework.cloud.openfeign.FeignAutoConfiguration")
+@ConditionalOnClass(ApacheHttp5Client.class)
+@EnableConfigurationProperties({HttpClientProperties.class, ResilienceProperties.class})
+public class ReplicationHttpClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PoolingHttpClientConnectionManager replicationConnectionManager(HttpClientProperties props) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(props.maxConnections())
+                .setMaxConnPerRoute(props.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(TimeValue.ofMilliseconds(props.connectionTtlMs()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(props.validateAfterInactivityMs()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CloseableHttpClient replicationHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                     HttpClientProperties props) {
+        TimeValue keepAlive = TimeValue.ofMilliseconds(props.keepAliveMs());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReplicationGuards replicationGuards(ResilienceProperties props, MeterRegistry registry) {
+        return new ReplicationGuards(props, registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Client feignClient(CloseableHttpClient replicationHttpClient, HttpClientProperties props,
+                              ReplicationGuards guards, MeterRegistry registry) {
+        return new BulkheadClient(new ResilientClient(new ApacheHttp5Client(replicationHttpClient), guards),
+                props.maxConcurrentPerTarget(), props.bulkheadWaitMs(), registry);
+    }
+
+    @Bean
+    public MeterBinder replicationConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "replication");
+    }
+}
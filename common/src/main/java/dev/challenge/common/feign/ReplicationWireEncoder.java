@@ -0,0 +1,49 @@
+package dev.challenge.common.feign;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.replication.WireProperties;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Feign runs request interceptors after encoding, so the wire format has to be chosen here rather
+ * than by setting a Content-Type header. JSON keeps going through the Spring encoder.
+ */
+public class ReplicationWireEncoder implements Encoder {
+
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+
+    private final Encoder delegate;
+    private final WireProperties.Format format;
+    private final ObjectMapper smileMapper;
+
+    public ReplicationWireEncoder(Encoder delegate, WireProperties.Format format,
+                                  MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.delegate = delegate;
+        this.format = format;
+        this.smileMapper = smileConverter.getObjectMapper();
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        if (format != WireProperties.Format.SMILE) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        try {
+            byte[] body = smileMapper.writerFor(smileMapper.getTypeFactory().constructType(bodyType))
+                    .writeValueAsBytes(object);
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, SMILE_MEDIA_TYPE);
+            template.body(body, null);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException("Could not encode replication payload as Smile", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.challenge.common.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.resilience")
+public record ResilienceProperties(@DefaultValue("16") int initialLimit,
+                                   @DefaultValue("2") int minLimit,
+                                   @DefaultValue("64") int maxLimit,
+                                   @DefaultValue("0.9") double backoffRatio,
+                                   @DefaultValue("2000") long latencyThresholdMs,
+                                   @DefaultValue("1000") long acquireWaitMs,
+                                   @DefaultValue("0.5") double failureRateThreshold,
+                                   @DefaultValue("50") int slidingWindowSize,
+                                   @DefaultValue("20") int minimumCalls,
+                                   @DefaultValue("10000") long openDurationMs,
+                                   @DefaultValue("3") int halfOpenCalls) {
+}
@@ -0,0 +1,35 @@
+package dev.challenge.common.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * Feign transport decorator that puts the per-target adaptive concurrency limit and circuit breaker
+ * from {@link ReplicationGuards} in front of every call.
+ */
+public class ResilientClient implements Client {
+
+    private final Client delegate;
+    private final ReplicationGuards guards;
+
+    public ResilientClient(Client delegate, ReplicationGuards guards) {
+        this.delegate = delegate;
+        this.guards = guards;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        ReplicationGuards.Permit permit = guards.acquire(ReplicationGuards.target(request.url()));
+        boolean success = false;
+        try {
+            Response response = delegate.execute(request, options);
+            success = response.status() < 500 && response.status() != 429;
+            return response;
+        } finally {
+            permit.release(success);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.challenge.common.id;
+
+import dev.challenge.common.error.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * External ids travel as canonical (lowercase) UUID strings and are stored as native {@code uuid} columns.
+ * Input in any case is accepted but always canonicalized, because maps and caches are keyed by the string.
+ */
+public final class ExternalIds {
+
+    private static final Pattern CANONICAL =
+            Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+    private ExternalIds() {
+    }
+
+    public static boolean isValid(String externalId) {
+        return externalId != null && CANONICAL.matcher(externalId).matches();
+    }
+
+    public static String require(String externalId, String field) {
+        if (!isValid(externalId)) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid " + field + ", expected a UUID (value: " + externalId + ")");
+        }
+        return UUID.fromString(externalId).toString();
+    }
+
+    /** Canonical form of a valid id; anything else is returned unchanged for validation to reject. */
+    public static String canonical(String externalId) {
+        return isValid(externalId) ? UUID.fromString(externalId).toString() : externalId;
+    }
+}
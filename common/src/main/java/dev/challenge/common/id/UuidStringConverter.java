@@ -0,0 +1,21 @@
+package dev.challenge.common.id;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.UUID;
+
+/** Keeps external ids as strings in the domain and the API while the column is a native {@code uuid}. */
+@Converter
+public class UuidStringConverter implements AttributeConverter<String, UUID> {
+
+    @Override
+    public UUID convertToDatabaseColumn(String attribute) {
+        return attribute == null ? null : UUID.fromString(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(UUID dbData) {
+        return dbData == null ? null : dbData.toString();
+    }
+}
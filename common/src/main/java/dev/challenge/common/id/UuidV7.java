@@ -0,0 +1,37 @@
+package dev.challenge.common.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48-bit Unix millisecond timestamp, a 12-bit counter that keeps ids generated in
+ * the same millisecond ascending, and 62 random bits. New keys land at the right edge of a B-tree index
+ * instead of scattering across it. Generation is lock-free; when the counter overflows, the timestamp moves
+ * one millisecond ahead rather than breaking the ordering.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+
+    /** Millisecond timestamp shifted left by {@link #COUNTER_BITS}, plus the counter. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long msb = ((stamp >>> COUNTER_BITS) << 16) | VERSION | (stamp & ((1L << COUNTER_BITS) - 1));
+        long lsb = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(msb, lsb);
+    }
+
+    public static String nextString() {
+        return next().toString();
+    }
+}
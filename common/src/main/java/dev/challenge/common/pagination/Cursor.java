@@ -0,0 +1,83 @@
+package dev.challenge.common.pagination;
+
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.error.CustomException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Opaque keyset cursor for list endpoints. The cursor wraps the last primary key of the previous page,
+ * so the next page is an {@code id > :after order by id limit :n} range scan on the primary key index.
+ */
+public final class Cursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    private static final String PREFIX = "id:";
+
+    private Cursor() {}
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the id to seek after; {@code 0} for the first page. */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException(raw);
+            long id = Long.parseLong(raw.substring(PREFIX.length()));
+            if (id < 0) throw new IllegalArgumentException(raw);
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) return DEFAULT_LIMIT;
+        if (requested < 1 || requested > MAX_LIMIT) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return requested;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}; the extra row only signals that a next
+     * page exists and is not returned.
+     */
+    public static <E, T> PageDTO<T> page(List<E> fetched, int limit, ToLongFunction<E> idOf, Function<E, T> mapper) {
+        boolean more = fetched.size() > limit;
+        List<E> rows = more ? fetched.subList(0, limit) : fetched;
+        List<T> items = new ArrayList<>(rows.size());
+        for (E row : rows) {
+            items.add(mapper.apply(row));
+        }
+        String next = more ? encode(idOf.applyAsLong(rows.get(rows.size() - 1))) : null;
+        return PageDTO.of(items, next);
+    }
+
+    /** 200 with the page, plus a {@code next} link (body and {@code Link} header) when there is one. */
+    public static <T> ResponseEntity<PageDTO<T>> ok(PageDTO<T> page) {
+        if (page.nextCursor() == null) {
+            return ResponseEntity.ok(page);
+        }
+        String link = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", page.nextCursor())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"")
+                .body(page.withNext(link));
+    }
+}
@@ -0,0 +1,57 @@
+package dev.challenge.common.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line. The first row is flushed immediately so clients see bytes
+ * right away; after that the stream is flushed every {@link #FLUSH_EVERY} rows.
+ */
+public class NdjsonWriter {
+
+    public static final int FLUSH_EVERY = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final OutputStream out;
+    private final ObjectWriter writer;
+    private long rows;
+
+    public NdjsonWriter(OutputStream out, ObjectMapper mapper) {
+        this.out = out;
+        this.writer = mapper.writer();
+    }
+
+    public static ResponseEntity<StreamingResponseBody> response(StreamingResponseBody body) {
+        StreamingResponseBody buffered = out -> {
+            BufferedOutputStream stream = new BufferedOutputStream(out, BUFFER_SIZE);
+            body.writeTo(stream);
+            stream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(buffered);
+    }
+
+    public void write(Object value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write(NEWLINE);
+            if (++rows == 1 || rows % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.replication.OutboxEventRepository.BacklogRow;
+import dev.challenge.common.replication.ReplicationMetrics.Backlog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BacklogProbe {
+
+    private final OutboxEventRepository repository;
+    private final ReplicationMetrics metrics;
+
+    @Scheduled(fixedDelayString = "${replication.metrics.backlog-refresh-ms:5000}")
+    public void refresh() {
+        List<BacklogRow> rows;
+        try {
+            rows = repository.backlog();
+        } catch (Exception e) {
+            log.warn("Could not read replication backlog. err={}", e.getMessage());
+            return;
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        for (BacklogRow row : rows) {
+            seen.add(row.getTargetNode());
+            metrics.updateBacklog(row.getTargetNode(),
+                    new Backlog(row.getPending(), row.getParked(), row.getOldestPending()));
+        }
+        metrics.backlog().keySet().stream()
+                .filter(target -> !seen.contains(target))
+                .forEach(target -> metrics.updateBacklog(target, Backlog.EMPTY));
+    }
+}
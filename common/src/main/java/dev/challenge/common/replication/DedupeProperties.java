@@ -0,0 +1,17 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.dedupe")
+public record DedupeProperties(@DefaultValue("true") boolean enabled,
+                               @DefaultValue("MEMORY") Store store,
+                               @DefaultValue("600000") long ttlMs,
+                               @DefaultValue("10000") int maxEntries,
+                               @DefaultValue("5000") long inFlightWaitMs) {
+
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+}
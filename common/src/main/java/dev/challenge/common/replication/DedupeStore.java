@@ -0,0 +1,10 @@
+package dev.challenge.common.replication;
+
+import java.util.Optional;
+
+public interface DedupeStore {
+
+    Optional<ReplicatedResponse> find(String key);
+
+    void save(String key, ReplicatedResponse response);
+}
@@ -0,0 +1,127 @@
+package dev.challenge.common.replication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers a replicated request that was already processed with the response recorded for its
+ * operation id, without reaching the controller or opening a transaction. A duplicate arriving
+ * while the original is still running waits for it instead of racing on the same rows.
+ */
+@Slf4j
+public class IdempotentReceiverFilter extends OncePerRequestFilter {
+
+    public static final String DUPLICATE_HEADER = "X-Replication-Duplicate";
+
+    private final DedupeStore store;
+    private final long inFlightWaitMs;
+    private final Map<String, CompletableFuture<ReplicatedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter duplicates;
+    private final Counter recorded;
+
+    public IdempotentReceiverFilter(DedupeStore store, long inFlightWaitMs, MeterRegistry registry) {
+        this.store = store;
+        this.inFlightWaitMs = inFlightWaitMs;
+        this.duplicates = Counter.builder("replication.dedupe.duplicates")
+                .description("Replicated requests answered from the dedupe store")
+                .register(registry);
+        this.recorded = Counter.builder("replication.dedupe.recorded")
+                .description("Replicated responses recorded for deduplication")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(Replication.OPERATION_HEADER) == null
+                || "GET".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + request.getHeader(Replication.OPERATION_HEADER);
+
+        Optional<ReplicatedResponse> stored = store.find(key);
+        if (stored.isPresent()) {
+            replay(key, stored.get(), response);
+            return;
+        }
+
+        CompletableFuture<ReplicatedResponse> mine = new CompletableFuture<>();
+        CompletableFuture<ReplicatedResponse> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            awaitOriginal(key, running, response);
+            return;
+        }
+
+        ReplicatedResponse result = null;
+        try {
+            stored = store.find(key);
+            if (stored.isPresent()) {
+                result = stored.get();
+                replay(key, result, response);
+                return;
+            }
+
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            ReplicatedResponse candidate = new ReplicatedResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getContentAsByteArray());
+            if (candidate.status() < 500) {
+                store.save(key, candidate);
+                recorded.increment();
+                result = candidate;
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            mine.complete(result);
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void awaitOriginal(String key, CompletableFuture<ReplicatedResponse> running, HttpServletResponse response)
+            throws IOException {
+        try {
+            ReplicatedResponse original = running.get(inFlightWaitMs, TimeUnit.MILLISECONDS);
+            if (original != null) {
+                replay(key, original, response);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // fall through: the original did not produce a reusable response in time
+        }
+        log.warn("Duplicate replicated request while original still pending. key={}", key);
+        response.sendError(HttpStatus.CONFLICT.value(), "Operação de replicação em andamento");
+    }
+
+    private void replay(String key, ReplicatedResponse original, HttpServletResponse response) throws IOException {
+        duplicates.increment();
+        log.debug("Duplicate replicated request short-circuited. key={}, status={}", key, original.status());
+        response.setStatus(original.status());
+        response.setHeader(DUPLICATE_HEADER, "true");
+        if (original.contentType() != null) response.setContentType(original.contentType());
+        if (original.body() != null && original.body().length > 0) {
+            response.setContentLength(original.body().length);
+            response.getOutputStream().write(original.body());
+        }
+    }
+}
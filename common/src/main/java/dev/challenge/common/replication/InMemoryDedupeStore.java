@@ -0,0 +1,69 @@
+package dev.challenge.common.replication;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryDedupeStore implements DedupeStore {
+
+    private record Entry(ReplicatedResponse response, long expiresAt) {}
+
+    private final Map<String, Entry> entries;
+    private final long ttlMs;
+    private final DedupeStore backing;
+
+    public InMemoryDedupeStore(int maxEntries, long ttlMs, DedupeStore backing) {
+        this.ttlMs = ttlMs;
+        this.backing = backing;
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<ReplicatedResponse> find(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) return Optional.of(entry.response());
+                entries.remove(key);
+            }
+        }
+        if (backing == null) return Optional.empty();
+
+        Optional<ReplicatedResponse> persisted = backing.find(key);
+        persisted.ifPresent(response -> put(key, response, now));
+        return persisted;
+    }
+
+    @Override
+    public void save(String key, ReplicatedResponse response) {
+        put(key, response, System.currentTimeMillis());
+        if (backing != null) backing.save(key, response);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void put(String key, ReplicatedResponse response, long now) {
+        synchronized (entries) {
+            evictExpired(now);
+            entries.put(key, new Entry(response, now + ttlMs));
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && it.next().expiresAt() <= now) {
+            it.remove();
+        }
+    }
+}
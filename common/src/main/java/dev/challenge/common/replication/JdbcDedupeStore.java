@@ -0,0 +1,53 @@
+package dev.challenge.common.replication;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class JdbcDedupeStore implements DedupeStore {
+
+    private static final int PURGE_EVERY = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final long ttlMs;
+    private final AtomicInteger saves = new AtomicInteger();
+
+    public JdbcDedupeStore(JdbcTemplate jdbc, long ttlMs) {
+        this.jdbc = jdbc;
+        this.ttlMs = ttlMs;
+    }
+
+    @Override
+    public Optional<ReplicatedResponse> find(String key) {
+        return jdbc.query("""
+                        SELECT status, content_type, body
+                          FROM replication_dedupe
+                         WHERE operation_key = ? AND created_at > ?
+                        """,
+                (rs, i) -> new ReplicatedResponse(rs.getInt("status"), rs.getString("content_type"), rs.getBytes("body")),
+                key, cutoff()).stream().findFirst();
+    }
+
+    @Override
+    public void save(String key, ReplicatedResponse response) {
+        jdbc.update("""
+                        INSERT INTO replication_dedupe (operation_key, status, content_type, body, created_at)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (operation_key) DO NOTHING
+                        """,
+                key, response.status(), response.contentType(), response.body(), Timestamp.from(Instant.now()));
+        if (saves.incrementAndGet() % PURGE_EVERY == 0) {
+            int purged = jdbc.update("DELETE FROM replication_dedupe WHERE created_at <= ?", cutoff());
+            log.debug("Expired replication dedupe entries purged. count={}", purged);
+        }
+    }
+
+    private Timestamp cutoff() {
+        return Timestamp.from(Instant.now().minusMillis(ttlMs));
+    }
+}
@@ -0,0 +1,9 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.lanes")
+public record LaneProperties(@DefaultValue("8") int count,
+                             @DefaultValue("1000") int capacity) {
+}
@@ -0,0 +1,105 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.dto.BucketEntryDTO;
+import dev.challenge.common.dto.MerkleNodesRequestDTO;
+import dev.challenge.common.dto.MerkleRootDTO;
+import dev.challenge.common.error.CustomException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds hash trees over the columns that pedido/usuario share across services and keeps them for a
+ * short while, so a peer can walk down the tree without the table being rescanned on every level.
+ */
+@Slf4j
+public class MerkleExchange {
+
+    private static final String BUCKET = "(hashtext(external_id::text) & " + (MerkleTree.LEAVES - 1) + ")";
+    private static final int MAX_SNAPSHOTS = 16;
+
+    private record Snapshot(ReplicationAggregate aggregate, MerkleTree tree, long expiresAt) {}
+
+    private final JdbcTemplate jdbc;
+    private final long snapshotTtlMs;
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > MAX_SNAPSHOTS;
+        }
+    };
+
+    public MerkleExchange(JdbcTemplate jdbc, long snapshotTtlMs) {
+        this.jdbc = jdbc;
+        this.snapshotTtlMs = snapshotTtlMs;
+    }
+
+    public MerkleTree build(ReplicationAggregate aggregate) {
+        Map<Integer, String> leaves = new HashMap<>();
+        jdbc.query("SELECT " + BUCKET + " AS bucket, md5(string_agg(" + rowDigest(aggregate)
+                        + ", '' ORDER BY external_id)) AS hash FROM " + table(aggregate) + " GROUP BY 1",
+                rs -> {
+                    leaves.put(rs.getInt("bucket"), rs.getString("hash"));
+                });
+        return MerkleTree.ofLeaves(leaves);
+    }
+
+    public MerkleRootDTO snapshot(ReplicationAggregate aggregate) {
+        MerkleTree tree = build(aggregate);
+        String id = UUID.randomUUID().toString();
+        synchronized (snapshots) {
+            snapshots.put(id, new Snapshot(aggregate, tree, System.currentTimeMillis() + snapshotTtlMs));
+        }
+        log.debug("Merkle snapshot built. aggregate={}, snapshotId={}, root={}", aggregate, id, tree.root());
+        return new MerkleRootDTO(id, aggregate, MerkleTree.DEPTH, tree.root());
+    }
+
+    public List<String> nodes(ReplicationAggregate aggregate, String snapshotId, MerkleNodesRequestDTO request) {
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(snapshotId);
+        }
+        if (snapshot == null || snapshot.aggregate() != aggregate || snapshot.expiresAt() < System.currentTimeMillis()) {
+            throw new CustomException(HttpStatus.NOT_FOUND, "Merkle snapshot not found (id: " + snapshotId + ")");
+        }
+        for (Integer index : request.indexes()) {
+            if (index == null || !MerkleTree.validNode(request.level(), index)) {
+                throw new CustomException(HttpStatus.BAD_REQUEST,
+                        "Invalid Merkle node (level: " + request.level() + ", index: " + index + ")");
+            }
+        }
+        return request.indexes().stream()
+                .map(index -> snapshot.tree().node(request.level(), index))
+                .toList();
+    }
+
+    public List<BucketEntryDTO> bucket(ReplicationAggregate aggregate, int bucket) {
+        if (!MerkleTree.validNode(MerkleTree.DEPTH, bucket)) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid Merkle bucket (" + bucket + ")");
+        }
+        return jdbc.query("SELECT external_id, version, " + rowDigest(aggregate) + " AS digest FROM "
+                        + table(aggregate) + " WHERE " + BUCKET + " = ? ORDER BY external_id",
+                (rs, i) -> new BucketEntryDTO(rs.getString("external_id"), rs.getLong("version"), rs.getString("digest")),
+                bucket);
+    }
+
+    private static String table(ReplicationAggregate aggregate) {
+        return switch (aggregate) {
+            case ORDER -> "pedido";
+            case USER -> "usuario";
+        };
+    }
+
+    private static String rowDigest(ReplicationAggregate aggregate) {
+        return switch (aggregate) {
+            case ORDER -> "md5(concat_ws('|', external_id, external_user_id, descricao, valor, version))";
+            case USER -> "md5(concat_ws('|', external_id, nome, email, version))";
+        };
+    }
+}
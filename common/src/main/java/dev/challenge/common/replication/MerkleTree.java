@@ -0,0 +1,69 @@
+package dev.challenge.common.replication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Fixed-depth binary hash tree over {@link #LEAVES} buckets of rows grouped by external_id hash.
+ * Level 0 is the root and level {@link #DEPTH} holds the bucket hashes.
+ */
+public final class MerkleTree {
+
+    public static final int DEPTH = 10;
+    public static final int LEAVES = 1 << DEPTH;
+
+    private static final String EMPTY = "";
+
+    private final String[][] levels;
+
+    private MerkleTree(String[][] levels) {
+        this.levels = levels;
+    }
+
+    public static MerkleTree ofLeaves(Map<Integer, String> bucketHashes) {
+        String[][] levels = new String[DEPTH + 1][];
+        String[] leaves = new String[LEAVES];
+        for (int i = 0; i < LEAVES; i++) {
+            leaves[i] = bucketHashes.getOrDefault(i, EMPTY);
+        }
+        levels[DEPTH] = leaves;
+
+        MessageDigest md5 = md5();
+        for (int level = DEPTH - 1; level >= 0; level--) {
+            String[] children = levels[level + 1];
+            String[] nodes = new String[1 << level];
+            for (int i = 0; i < nodes.length; i++) {
+                String left = children[2 * i];
+                String right = children[2 * i + 1];
+                nodes[i] = left.isEmpty() && right.isEmpty()
+                        ? EMPTY
+                        : HexFormat.of().formatHex(md5.digest((left + right).getBytes(StandardCharsets.US_ASCII)));
+            }
+            levels[level] = nodes;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public String root() {
+        return levels[0][0];
+    }
+
+    public String node(int level, int index) {
+        return levels[level][index];
+    }
+
+    public static boolean validNode(int level, int index) {
+        return level >= 0 && level <= DEPTH && index >= 0 && index < (1 << level);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.node")
+public record NodeProperties(@DefaultValue("0") int id) {
+}
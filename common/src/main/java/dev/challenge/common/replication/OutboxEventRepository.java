@@ -0,0 +1,74 @@
+package dev.challenge.common.replication;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    interface BacklogRow {
+        int getTargetNode();
+        long getPending();
+        long getParked();
+        Instant getOldestPending();
+    }
+
+    /**
+     * Due, unclaimed events for a target. An event is skipped while an earlier event of the same
+     * aggregate is parked or waiting for its next attempt, so per-entity order survives retries.
+     */
+    @Query("select e from OutboxEvent e where e.targetNode = :target and e.dispatchedAt is null "
+            + "and e.parkedAt is null and e.nextAttemptAt <= :now "
+            + "and not exists (select b.id from OutboxEvent b where b.targetNode = e.targetNode "
+            + "and b.aggregateType = e.aggregateType and b.aggregateId = e.aggregateId and b.id < e.id "
+            + "and (b.parkedAt is not null or (b.dispatchedAt is null and b.nextAttemptAt > :now))) "
+            + "order by e.id asc")
+    List<OutboxEvent> findReady(@Param("target") int target, @Param("now") Instant now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = :at where e.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("at") Instant at);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = null where e.dispatchedAt is not null and e.parkedAt is null")
+    int releaseClaims();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = null where e.id in :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatchedAt = null, e.nextAttemptAt = :at where e.id in :ids")
+    int defer(@Param("ids") Collection<Long> ids, @Param("at") Instant at);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, "
+            + "e.parkedAt = :parkedAt, e.dispatchedAt = null where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("attempts") int attempts, @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("error") String error, @Param("parkedAt") Instant parkedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = 0, e.nextAttemptAt = :now, e.lastError = null, e.dispatchedAt = null, "
+            + "e.parkedAt = null where e.targetNode = :target and e.parkedAt is not null")
+    int rearmParked(@Param("target") int target, @Param("now") Instant now);
+
+    @Query("select e.targetNode as targetNode, "
+            + "sum(case when e.parkedAt is null then 1 else 0 end) as pending, "
+            + "sum(case when e.parkedAt is not null then 1 else 0 end) as parked, "
+            + "min(case when e.parkedAt is null then e.createdAt end) as oldestPending "
+            + "from OutboxEvent e group by e.targetNode")
+    List<BacklogRow> backlog();
+}
@@ -0,0 +1,19 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.outbox")
+public record OutboxProperties(@DefaultValue("100") int batchSize,
+                               @DefaultValue("100") long pollIntervalMs,
+                               @DefaultValue("500") long initialBackoffMs,
+                               @DefaultValue("60000") long maxBackoffMs,
+                               @DefaultValue("50") int sendBatchSize,
+                               @DefaultValue("250") long batchLingerMs,
+                               @DefaultValue("20") int maxAttempts) {
+
+    public long backoffFor(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts, 20);
+        return Math.min(delay, maxBackoffMs);
+    }
+}
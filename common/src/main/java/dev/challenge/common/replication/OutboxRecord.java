@@ -0,0 +1,22 @@
+package dev.challenge.common.replication;
+
+public interface OutboxRecord {
+
+    Long getId();
+
+    ReplicationAggregate getAggregateType();
+
+    String getAggregateId();
+
+    ReplicationOperation getOperation();
+
+    void setOperation(ReplicationOperation operation);
+
+    String getPayload();
+
+    void setPayload(String payload);
+
+    default String replicationKey() {
+        return getAggregateType() + ":" + getAggregateId();
+    }
+}
@@ -0,0 +1,317 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.feign.CallNotPermittedException;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Failed events are never retried inside a lane: their claim is released with a later
+ * {@code next_attempt_at} and the poll query keeps every later event of the same key out until the
+ * earlier one is due again (or rearmed, when parked). Events of that key already queued behind the
+ * failure were claimed before it, so the lane hands them back too ({@code heldSince}).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /** Each peer gets its own lanes so a slow replica never delays delivery to the others. */
+    private record Target(Peer peer, ReplicationLanes<OutboxEvent> lanes) {}
+
+    private final OutboxEventRepository repository;
+    private final OutboxTransport transport;
+    private final OutboxProperties properties;
+    private final ReplicationMetrics metrics;
+    private final List<Target> targets = new ArrayList<>();
+
+    public OutboxRelay(OutboxEventRepository repository, OutboxTransport transport, OutboxProperties properties,
+                       LaneProperties laneProperties, Topology topology, ReplicationMetrics metrics,
+                       MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transport = transport;
+        this.properties = properties;
+        this.metrics = metrics;
+        for (Peer peer : topology.peers()) {
+            String name = "node-" + peer.id();
+            Counter coalesced = Counter.builder("replication.coalesced")
+                    .description("Outbound replication operations removed by coalescing")
+                    .tag("target", name)
+                    .register(meterRegistry);
+            Map<String, Instant> heldSince = new ConcurrentHashMap<>();
+            ReplicationLanes<OutboxEvent> lanes = new ReplicationLanes<>(name, laneProperties.count(),
+                    laneProperties.capacity(), properties.sendBatchSize(), properties.batchLingerMs(),
+                    (lane, batch) -> deliver(peer, coalesced, heldSince, lane, batch),
+                    (lane, batch, error) -> abandon(peer, heldSince, lane, batch),
+                    meterRegistry);
+            targets.add(new Target(peer, lanes));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        int released = repository.releaseClaims();
+        if (released > 0) {
+            log.info("Released outbox events claimed before restart. count={}", released);
+        }
+        targets.forEach(target -> target.lanes().start());
+    }
+
+    @PreDestroy
+    void stop() {
+        targets.forEach(target -> target.lanes().close());
+    }
+
+    @Scheduled(fixedDelayString = "${replication.outbox.poll-interval-ms:100}")
+    public void poll() {
+        targets.forEach(this::poll);
+    }
+
+    private void poll(Target target) {
+        ReplicationLanes<OutboxEvent> lanes = target.lanes();
+        Instant now = Instant.now();
+        List<OutboxEvent> pending = repository.findReady(target.peer().id(), now, Limit.of(properties.batchSize()));
+        if (pending.isEmpty()) return;
+
+        int[] free = lanes.remainingCapacities();
+        Set<Integer> saturated = new HashSet<>();
+        List<OutboxEvent> accepted = new ArrayList<>(pending.size());
+        for (OutboxEvent event : pending) {
+            int lane = lanes.laneFor(key(event));
+            if (saturated.contains(lane)) continue;
+            if (free[lane] == 0) {
+                saturated.add(lane);
+                continue;
+            }
+            free[lane]--;
+            accepted.add(event);
+        }
+        if (accepted.isEmpty()) return;
+
+        repository.markDispatched(ids(accepted), now);
+        List<Long> unqueued = new ArrayList<>();
+        for (OutboxEvent event : accepted) {
+            event.setDispatchedAt(now);
+            int lane = lanes.laneFor(key(event));
+            if (saturated.contains(lane) || !lanes.offer(key(event), event)) {
+                saturated.add(lane);
+                unqueued.add(event.getId());
+            }
+        }
+        if (!unqueued.isEmpty()) {
+            log.warn("Replication lane full, events left for next poll. target={}, count={}",
+                    target.peer().id(), unqueued.size());
+            release(unqueued);
+        }
+    }
+
+    private void deliver(Peer peer, Counter coalescedCounter, Map<String, Instant> heldSince, int lane,
+                         List<OutboxEvent> batch) {
+        List<OutboxEvent> ready = new ArrayList<>(batch.size());
+        List<Long> held = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            Instant since = heldSince.get(key(event));
+            if (since == null) {
+                ready.add(event);
+            } else if (event.getDispatchedAt().isAfter(since)) {
+                heldSince.remove(key(event));
+                ready.add(event);
+            } else {
+                held.add(event.getId());
+            }
+        }
+        if (!held.isEmpty()) {
+            release(held);
+            log.debug("Replication events held behind an earlier failure. target={}, lane={}, count={}",
+                    peer.id(), lane, held.size());
+        }
+        if (ready.isEmpty()) return;
+
+        ReplicationCoalescer.Result<OutboxEvent> coalesced = ReplicationCoalescer.coalesce(ready);
+        if (coalesced.coalesced() > 0) {
+            coalescedCounter.increment(coalesced.coalesced());
+            log.debug("Replication operations coalesced. target={}, lane={}, received={}, sending={}",
+                    peer.id(), lane, ready.size(), coalesced.events().size());
+        }
+        if (!coalesced.cancelled().isEmpty()) {
+            repository.deleteAllByIdInBatch(coalesced.cancelled());
+        }
+
+        Set<String> failedKeys = new HashSet<>();
+        List<Long> behindFailure = new ArrayList<>();
+        for (List<OutboxEvent> run : partition(coalesced.events())) {
+            List<OutboxEvent> toSend = new ArrayList<>(run.size());
+            for (OutboxEvent event : run) {
+                if (failedKeys.contains(key(event))) {
+                    behindFailure.add(event.getId());
+                    behindFailure.addAll(coalesced.absorbed().getOrDefault(event.getId(), List.of()));
+                } else {
+                    toSend.add(event);
+                }
+            }
+            if (toSend.isEmpty()) continue;
+
+            send(peer, toSend, coalesced.absorbed()).forEach(event -> failedKeys.add(key(event)));
+        }
+        release(behindFailure);
+        if (!failedKeys.isEmpty()) {
+            Instant now = Instant.now();
+            failedKeys.forEach(key -> heldSince.put(key, now));
+        }
+    }
+
+    /** Releases a batch the lane could not process, holding its keys so queued successors wait for it. */
+    private void abandon(Peer peer, Map<String, Instant> heldSince, int lane, List<OutboxEvent> batch) {
+        release(ids(batch));
+        Instant now = Instant.now();
+        batch.forEach(event -> heldSince.put(key(event), now));
+        log.warn("Replication batch released after lane error. target={}, lane={}, size={}",
+                peer.id(), lane, batch.size());
+    }
+
+    /**
+     * Splits into runs that share aggregate type and provenance, with at most one event per key, so a
+     * failure is known before the next event of the same key is sent.
+     */
+    private List<List<OutboxEvent>> partition(List<OutboxEvent> events) {
+        List<List<OutboxEvent>> runs = new ArrayList<>();
+        List<OutboxEvent> current = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (!current.isEmpty() && (!sameRun(current.get(0), event) || keys.contains(key(event)))) {
+                runs.add(current);
+                current = new ArrayList<>();
+                keys.clear();
+            }
+            current.add(event);
+            keys.add(key(event));
+        }
+        if (!current.isEmpty()) runs.add(current);
+        return runs;
+    }
+
+    private static boolean sameRun(OutboxEvent first, OutboxEvent event) {
+        return first.getAggregateType() == event.getAggregateType()
+                && first.getOriginNode() == event.getOriginNode()
+                && Objects.equals(first.getSeen(), event.getSeen());
+    }
+
+    /** Sends one run and settles every event in the outbox; returns the events that were not delivered. */
+    private List<OutboxEvent> send(Peer peer, List<OutboxEvent> batch, Map<Long, List<Long>> absorbed) {
+        List<BatchItemResultDTO> results;
+        long started = System.nanoTime();
+        try {
+            results = transport.send(peer, batch);
+            metrics.sent(peer.id(), batch.get(0).getAggregateType(), "BATCH", started, true);
+        } catch (CallNotPermittedException e) {
+            log.debug("Replication deferred, peer not accepting calls. target={}, type={}, size={}, reason={}",
+                    peer.id(), batch.get(0).getAggregateType(), batch.size(), e.getMessage());
+            defer(batch, absorbed);
+            return batch;
+        } catch (Exception e) {
+            metrics.sent(peer.id(), batch.get(0).getAggregateType(), "BATCH", started, false);
+            batch.forEach(event -> registerFailure(peer, event, e.getMessage()));
+            release(absorbedBy(batch, absorbed));
+            return batch;
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<OutboxEvent> notAttempted = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            BatchItemResultDTO result = i < results.size() ? results.get(i) : null;
+            if (result == null) {
+                notAttempted.add(event);
+            } else if (result.succeeded()) {
+                delivered.add(event.getId());
+                delivered.addAll(absorbed.getOrDefault(event.getId(), List.of()));
+            } else {
+                registerFailure(peer, event, "Status " + result.status() + ": " + result.message());
+                failed.add(event);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            repository.deleteAllByIdInBatch(delivered);
+        }
+        release(absorbedBy(failed, absorbed));
+        if (!notAttempted.isEmpty()) {
+            defer(notAttempted, absorbed);
+            failed.addAll(notAttempted);
+        }
+        log.info("Replication batch sent. target={}, type={}, size={}, delivered={}",
+                peer.id(), batch.get(0).getAggregateType(), batch.size(), delivered.size());
+        return failed;
+    }
+
+    /** Hands events back without spending an attempt; they become due after the initial backoff. */
+    private void defer(List<OutboxEvent> events, Map<Long, List<Long>> absorbed) {
+        List<Long> ids = ids(events);
+        ids.addAll(absorbedBy(events, absorbed));
+        repository.defer(ids, Instant.now().plusMillis(properties.initialBackoffMs()));
+    }
+
+    private void registerFailure(Peer peer, OutboxEvent event, String error) {
+        int attempts = event.getAttempts() + 1;
+        Instant now = Instant.now();
+        boolean parked = attempts >= properties.maxAttempts();
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(now.plusMillis(properties.backoffFor(attempts - 1)));
+        event.setLastError(truncate(error));
+        event.setParkedAt(parked ? now : null);
+        event.setDispatchedAt(null);
+        repository.recordFailure(event.getId(), attempts, event.getNextAttemptAt(), event.getLastError(),
+                event.getParkedAt());
+        if (parked) {
+            metrics.parked(peer.id(), event.getAggregateType());
+            log.error("Replication gave up after max attempts, event parked in outbox. target={}, outboxId={}, type={}, op={}, aggregateId={}, err={}",
+                    peer.id(), event.getId(), event.getAggregateType(), event.getOperation(), event.getAggregateId(), error);
+        } else {
+            metrics.retried(peer.id(), event.getAggregateType());
+            log.warn("Failed to replicate, will retry. target={}, outboxId={}, type={}, op={}, aggregateId={}, attempts={}, err={}",
+                    peer.id(), event.getId(), event.getAggregateType(), event.getOperation(), event.getAggregateId(), attempts, error);
+        }
+    }
+
+    private void release(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            repository.releaseClaims(ids);
+        }
+    }
+
+    private static List<Long> absorbedBy(List<OutboxEvent> events, Map<Long, List<Long>> absorbed) {
+        List<Long> ids = new ArrayList<>();
+        events.forEach(event -> ids.addAll(absorbed.getOrDefault(event.getId(), List.of())));
+        return ids;
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return new ArrayList<>(events.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private static String key(OutboxEvent event) {
+        return event.replicationKey();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
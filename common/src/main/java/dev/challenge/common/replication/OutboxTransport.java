@@ -0,0 +1,17 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Service-specific delivery of outbox events to a peer. Every call carries one run of events sharing
+ * aggregate type and provenance. Results are positional; events past the end of the returned list were
+ * not attempted and are retried without counting an attempt.
+ */
+public interface OutboxTransport {
+
+    List<BatchItemResultDTO> send(Peer peer, List<OutboxEvent> events) throws IOException;
+}
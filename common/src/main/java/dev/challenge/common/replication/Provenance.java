@@ -0,0 +1,53 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.error.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Where a replicated change started and which nodes already have (or are being sent) it.
+ * Travels as the {@code X-Replication-Origin} / {@code X-Replication-Seen} headers.
+ */
+public record Provenance(int origin, Set<Integer> seen) {
+
+    public Provenance {
+        seen = Collections.unmodifiableSet(new TreeSet<>(seen));
+    }
+
+    public static Provenance parse(String origin, String seen) {
+        if (origin == null || origin.isBlank()) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Missing replication origin");
+        }
+        try {
+            Set<Integer> nodes = seen == null || seen.isBlank()
+                    ? Set.of()
+                    : Arrays.stream(seen.split(","))
+                            .map(String::trim)
+                            .filter(s -> !s.isEmpty())
+                            .map(Integer::valueOf)
+                            .collect(Collectors.toSet());
+            return new Provenance(Integer.parseInt(origin.trim()), nodes);
+        } catch (NumberFormatException e) {
+            throw new CustomException(HttpStatus.BAD_REQUEST,
+                    "Invalid replication provenance. origin=" + origin + ", seen=" + seen);
+        }
+    }
+
+    public Provenance forwardedBy(int node, Collection<Integer> targets) {
+        Set<Integer> next = new TreeSet<>(seen);
+        next.add(origin);
+        next.add(node);
+        next.addAll(targets);
+        return new Provenance(origin, next);
+    }
+
+    public String seenHeader() {
+        return seen.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,12 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.reconcile")
+public record ReconcileProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("300000") long intervalMs,
+                                  @DefaultValue("120000") long snapshotTtlMs,
+                                  @DefaultValue("false") boolean deleteOrphans,
+                                  @DefaultValue("600000") long orphanGraceMs) {
+}
@@ -0,0 +1,4 @@
+package dev.challenge.common.replication;
+
+public record ReplicatedResponse(int status, String contentType, byte[] body) {
+}
@@ -7,14 +7,24 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 public final class Replication {
-    public static final String HEADER = "X-Replicated";
+    public static final String ORIGIN_HEADER = "X-Replication-Origin";
+    public static final String SEEN_HEADER = "X-Replication-Seen";
+    public static final String OPERATION_HEADER = "X-Replication-Operation-Id";
     private Replication() {}
 
     public static boolean incoming() {
+        return provenance() != null;
+    }
+
+    /** Provenance of the change being applied, or {@code null} when it is a local write. */
+    public static Provenance provenance() {
+        Provenance marked = ReplicationContext.current();
+        if (marked != null) return marked;
         RequestAttributes ra = RequestContextHolder.getRequestAttributes();
-        if (!(ra instanceof ServletRequestAttributes attrs)) return false;
+        if (!(ra instanceof ServletRequestAttributes attrs)) return null;
         HttpServletRequest req = attrs.getRequest();
-        String h = req.getHeader(HEADER);
-        return h != null && !"false".equalsIgnoreCase(h);
+        String origin = req.getHeader(ORIGIN_HEADER);
+        if (origin == null || origin.isBlank()) return null;
+        return Provenance.parse(origin, req.getHeader(SEEN_HEADER));
     }
 }
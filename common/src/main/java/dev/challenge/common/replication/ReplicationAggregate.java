@@ -0,0 +1,6 @@
+package dev.challenge.common.replication;
+
+public enum ReplicationAggregate {
+    ORDER,
+    USER
+}
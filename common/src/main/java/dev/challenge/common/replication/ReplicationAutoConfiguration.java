@@ -0,0 +1,90 @@
+package dev.challenge.common.replication;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@AutoConfiguration(after = JdbcTemplateAutoConfiguration.class)
+@EnableConfigurationProperties({OutboxProperties.class, LaneProperties.class, DedupeProperties.class,
+        NodeProperties.class, ReconcileProperties.class, StreamProperties.class, SnapshotProperties.class, TopologyProperties.class})
+public class ReplicationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VersionClock versionClock(NodeProperties props) {
+        return new VersionClock(props.id());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Topology replicationTopology(NodeProperties node, TopologyProperties props) {
+        return new Topology(node.id(), props);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReplicationMetrics replicationMetrics(MeterRegistry registry, Topology topology) {
+        return new ReplicationMetrics(registry, topology);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(JdbcTemplate.class)
+    public MerkleExchange merkleExchange(JdbcTemplate jdbcTemplate, ReconcileProperties props) {
+        return new MerkleExchange(jdbcTemplate, props.snapshotTtlMs());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "replication.dedupe", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public DedupeStore dedupeStore(DedupeProperties props, ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                   MeterRegistry registry) {
+        DedupeStore backing = props.store() == DedupeProperties.Store.JDBC
+                ? new JdbcDedupeStore(jdbcTemplate.getObject(), props.ttlMs())
+                : null;
+        InMemoryDedupeStore store = new InMemoryDedupeStore(props.maxEntries(), props.ttlMs(), backing);
+        Gauge.builder("replication.dedupe.entries", store, InMemoryDedupeStore::size)
+                .description("Replicated responses kept in memory for deduplication")
+                .register(registry);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "replication.dedupe", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<IdempotentReceiverFilter> idempotentReceiverFilter(DedupeStore store,
+                                                                                   DedupeProperties props,
+                                                                                   MeterRegistry registry) {
+        FilterRegistrationBean<IdempotentReceiverFilter> registration =
+                new FilterRegistrationBean<>(new IdempotentReceiverFilter(store, props.inFlightWaitMs(), registry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint(endpoint = ReplicationEndpoint.class)
+        public ReplicationEndpoint replicationEndpoint(NodeProperties node, ReplicationMetrics metrics,
+                                                       MeterRegistry registry) {
+            return new ReplicationEndpoint(node.id(), metrics, registry);
+        }
+    }
+}
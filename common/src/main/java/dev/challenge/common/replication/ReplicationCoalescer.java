@@ -0,0 +1,87 @@
+package dev.challenge.common.replication;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compacts pending operations per entity before they are sent: consecutive updates keep only the
+ * last payload, an update folds into a pending create, a delete replaces pending updates and a
+ * create followed by a delete cancels out. Absorbed events are reported so they can be removed
+ * from the outbox together with the event that carried their effect.
+ */
+public final class ReplicationCoalescer {
+
+    private ReplicationCoalescer() {}
+
+    public record Result<E>(List<E> events,
+                            Map<Long, List<Long>> absorbed,
+                            List<Long> cancelled,
+                            int coalesced) {
+    }
+
+    private enum Fold { APPEND, KEEP_OPERATION, REPLACE, CANCEL }
+
+    public static <E extends OutboxRecord> Result<E> coalesce(List<E> events) {
+        Map<String, Deque<E>> byKey = new LinkedHashMap<>();
+        Map<Long, List<Long>> absorbed = new HashMap<>();
+        List<Long> cancelled = new ArrayList<>();
+
+        for (E event : events) {
+            Deque<E> ops = byKey.computeIfAbsent(event.replicationKey(), k -> new ArrayDeque<>());
+            E last = ops.peekLast();
+            Fold fold = last == null ? Fold.APPEND : fold(last.getOperation(), event.getOperation());
+            switch (fold) {
+                case APPEND -> ops.addLast(event);
+                case KEEP_OPERATION -> {
+                    last.setPayload(event.getPayload());
+                    absorb(absorbed, last, event);
+                }
+                case REPLACE -> {
+                    last.setOperation(event.getOperation());
+                    last.setPayload(event.getPayload());
+                    absorb(absorbed, last, event);
+                }
+                case CANCEL -> {
+                    ops.pollLast();
+                    cancelled.add(last.getId());
+                    List<Long> previous = absorbed.remove(last.getId());
+                    if (previous != null) cancelled.addAll(previous);
+                    cancelled.add(event.getId());
+                }
+            }
+        }
+
+        List<E> survivors = byKey.values().stream()
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(OutboxRecord::getId))
+                .toList();
+        return new Result<>(survivors, absorbed, cancelled, events.size() - survivors.size());
+    }
+
+    private static Fold fold(ReplicationOperation previous, ReplicationOperation next) {
+        return switch (previous) {
+            case CREATE -> switch (next) {
+                case UPDATE -> Fold.KEEP_OPERATION;
+                case DELETE -> Fold.CANCEL;
+                case CREATE -> Fold.APPEND;
+            };
+            case UPDATE -> switch (next) {
+                case UPDATE -> Fold.KEEP_OPERATION;
+                case DELETE -> Fold.REPLACE;
+                case CREATE -> Fold.APPEND;
+            };
+            case DELETE -> next == ReplicationOperation.DELETE ? Fold.KEEP_OPERATION : Fold.APPEND;
+        };
+    }
+
+    private static void absorb(Map<Long, List<Long>> absorbed, OutboxRecord survivor, OutboxRecord event) {
+        absorbed.computeIfAbsent(survivor.getId(), k -> new ArrayList<>()).add(event.getId());
+    }
+}
@@ -0,0 +1,31 @@
+package dev.challenge.common.replication;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile (binary JSON) support for the replication channel. The converter is always registered so a
+ * receiver accepts either format by Content-Type; senders opt in with {@code replication.wire.format}.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = HttpMessageConvertersAutoConfiguration.class)
+@EnableConfigurationProperties(WireProperties.class)
+public class ReplicationCodecAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        Jackson2ObjectMapperBuilder smile = builder.getIfAvailable(Jackson2ObjectMapperBuilder::new);
+        return new MappingJackson2SmileHttpMessageConverter(smile.createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build());
+    }
+}
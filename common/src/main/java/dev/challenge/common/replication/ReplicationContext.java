@@ -1,6 +1,9 @@
 package dev.challenge.common.replication;
+
 public final class ReplicationContext {
-    private static final ThreadLocal<Boolean> FLAG = ThreadLocal.withInitial(() -> false);
-    public static void mark(boolean v){ FLAG.set(v); }
-    public static void clear(){ FLAG.remove(); }
-}
\ No newline at end of file
+    private static final ThreadLocal<Provenance> CURRENT = new ThreadLocal<>();
+    private ReplicationContext() {}
+    public static void mark(Provenance provenance){ CURRENT.set(provenance); }
+    public static Provenance current(){ return CURRENT.get(); }
+    public static void clear(){ CURRENT.remove(); }
+}
@@ -0,0 +1,85 @@
+package dev.challenge.common.replication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/replication}: one-page view of how far this node's peers are behind, built from
+ * the same meters that are exported through Micrometer.
+ */
+@Endpoint(id = "replication")
+public class ReplicationEndpoint {
+
+    public record TargetView(long pending, long parked, Instant oldestPendingCreatedAt,
+                             double oldestPendingAgeSeconds, double retries, double parkedTotal) {}
+
+    public record TimerView(Map<String, String> tags, long count, double meanMs, double maxMs,
+                            Map<String, Double> percentilesMs) {}
+
+    public record Status(int node, Map<Integer, TargetView> targets, List<TimerView> lag,
+                         List<TimerView> applyLatency, List<TimerView> sendLatency) {}
+
+    private final int node;
+    private final ReplicationMetrics metrics;
+    private final MeterRegistry registry;
+
+    public ReplicationEndpoint(int node, ReplicationMetrics metrics, MeterRegistry registry) {
+        this.node = node;
+        this.metrics = metrics;
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Status status() {
+        Map<Integer, TargetView> targets = new TreeMap<>();
+        metrics.backlog().forEach((target, backlog) -> targets.put(target, new TargetView(
+                backlog.pending(),
+                backlog.parked(),
+                backlog.oldestCreatedAt(),
+                backlog.oldestAgeSeconds(),
+                sum(registry.find(ReplicationMetrics.RETRIES).tag("target", String.valueOf(target)).counters()),
+                sum(registry.find(ReplicationMetrics.PARKED).tag("target", String.valueOf(target)).counters()))));
+        return new Status(node, targets,
+                timers(ReplicationMetrics.LAG),
+                timers(ReplicationMetrics.APPLY_LATENCY),
+                timers(ReplicationMetrics.SEND_LATENCY));
+    }
+
+    private List<TimerView> timers(String name) {
+        return registry.find(name).timers().stream()
+                .map(ReplicationEndpoint::view)
+                .toList();
+    }
+
+    private static TimerView view(Timer timer) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : timer.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return new TimerView(tags, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+    }
+
+    private static double sum(Collection<Counter> counters) {
+        return counters.stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -1,5 +1,6 @@
 package dev.challenge.common.replication;
 
+import dev.challenge.common.error.CustomException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,18 +9,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 public class ReplicationFlagFilter extends OncePerRequestFilter {
-    public static final String HEADER = "X-Replicated";
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
             throws ServletException, IOException {
         try {
-            boolean replicated = "true".equalsIgnoreCase(req.getHeader(HEADER));
-            System.out.println(">>> HEADER X-Replicated = " + replicated);
-            ReplicationContext.mark(replicated);            chain.doFilter(req, res);
+            String origin = req.getHeader(Replication.ORIGIN_HEADER);
+            if (origin != null && !origin.isBlank()) {
+                try {
+                    ReplicationContext.mark(Provenance.parse(origin, req.getHeader(Replication.SEEN_HEADER)));
+                } catch (CustomException e) {
+                    res.sendError(e.getStatus().value(), e.getMessage());
+                    return;
+                }
+            }
+            chain.doFilter(req, res);
         } finally {
             ReplicationContext.clear();
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package dev.challenge.common.replication;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicationLanes<E> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface LaneHandler<E> {
+        void handle(int lane, List<E> batch) throws InterruptedException;
+    }
+
+    /** Called when {@link LaneHandler#handle} throws, so the owner can hand the batch back for a later attempt. */
+    @FunctionalInterface
+    public interface FailureHandler<E> {
+        void failed(int lane, List<E> batch, Exception error);
+    }
+
+    private final String name;
+    private final List<BlockingQueue<E>> queues;
+    private final List<Thread> workers = new ArrayList<>();
+    private final LaneHandler<E> handler;
+    private final FailureHandler<E> onFailure;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private volatile boolean running;
+
+    public ReplicationLanes(String name, int lanes, int capacity, int maxBatch, long lingerMs,
+                            LaneHandler<E> handler, FailureHandler<E> onFailure, MeterRegistry registry) {
+        this.name = name;
+        this.handler = handler;
+        this.onFailure = onFailure;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.queues = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            LinkedBlockingQueue<E> queue = new LinkedBlockingQueue<>(capacity);
+            queues.add(queue);
+            Gauge.builder("replication.lane.depth", queue, BlockingQueue::size)
+                    .description("Replication events waiting in the lane")
+                    .tag("target", name)
+                    .tag("lane", String.valueOf(i))
+                    .register(registry);
+        }
+        Gauge.builder("replication.lanes", queues, List::size)
+                .description("Number of replication lanes")
+                .tag("target", name)
+                .register(registry);
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (int i = 0; i < queues.size(); i++) {
+            int lane = i;
+            workers.add(Thread.ofVirtual()
+                    .name("replication-" + name + "-lane-" + lane)
+                    .start(() -> run(lane)));
+        }
+        log.info("Replication lanes started. target={}, lanes={}", name, queues.size());
+    }
+
+    public int laneFor(String key) {
+        return Math.floorMod(key.hashCode(), queues.size());
+    }
+
+    public int[] remainingCapacities() {
+        int[] free = new int[queues.size()];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = queues.get(i).remainingCapacity();
+        }
+        return free;
+    }
+
+    public boolean offer(String key, E event) {
+        return queues.get(laneFor(key)).offer(event);
+    }
+
+    public int depth(int lane) {
+        return queues.get(lane).size();
+    }
+
+    public int count() {
+        return queues.size();
+    }
+
+    private void run(int lane) {
+        BlockingQueue<E> queue = queues.get(lane);
+        while (running) {
+            List<E> batch = new ArrayList<>(maxBatch);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    E next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+                handler.handle(lane, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in replication lane. target={}, lane={}, size={}", name, lane, batch.size(), e);
+                fail(lane, batch, e);
+            }
+        }
+    }
+
+    private void fail(int lane, List<E> batch, Exception error) {
+        if (batch.isEmpty()) return;
+        try {
+            onFailure.failed(lane, batch, error);
+        } catch (Exception e) {
+            log.error("Could not hand back failed replication batch. target={}, lane={}, size={}", name, lane, batch.size(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package dev.challenge.common.replication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the replication path. Lag is measured on the receiving node as the distance between
+ * the wall-clock part of the incoming version (stamped by the origin when it committed) and the
+ * moment the change was applied here, so it includes outbox wait, retries and transport.
+ */
+public class ReplicationMetrics {
+
+    public static final String LAG = "replication.lag";
+    public static final String APPLY_LATENCY = "replication.apply.latency";
+    public static final String SEND_LATENCY = "replication.send.latency";
+    public static final String RETRIES = "replication.retries";
+    public static final String PARKED = "replication.parked";
+    public static final String BACKLOG = "replication.backlog";
+
+    /** Pending outbox rows for one peer, refreshed by the service's backlog probe. */
+    public record Backlog(long pending, long parked, Instant oldestCreatedAt) {
+
+        public static final Backlog EMPTY = new Backlog(0, 0, null);
+
+        public double oldestAgeSeconds() {
+            return oldestCreatedAt == null ? 0 : Duration.between(oldestCreatedAt, Instant.now()).toMillis() / 1000.0;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Integer, Backlog> backlog = new ConcurrentHashMap<>();
+
+    public ReplicationMetrics(MeterRegistry registry, Topology topology) {
+        this.registry = registry;
+        for (TopologyProperties.Peer peer : topology.peers()) {
+            int target = peer.id();
+            backlog.put(target, Backlog.EMPTY);
+            String tag = String.valueOf(target);
+            Gauge.builder(BACKLOG, () -> backlog.get(target).pending())
+                    .description("Outbox rows waiting to be delivered to a peer")
+                    .tag("target", tag)
+                    .register(registry);
+            Gauge.builder(BACKLOG + ".parked", () -> backlog.get(target).parked())
+                    .description("Outbox rows that exhausted their attempts and wait for reconciliation")
+                    .tag("target", tag)
+                    .register(registry);
+            Gauge.builder(BACKLOG + ".oldest.age", () -> backlog.get(target).oldestAgeSeconds())
+                    .description("Age of the oldest undelivered outbox row")
+                    .tag("target", tag)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Records a change applied from a peer. Local writes are ignored; deletes carry no version, so
+     * only their apply latency is recorded.
+     */
+    public void applied(ReplicationAggregate type, ReplicationOperation operation, Long version, long startedNanos) {
+        Provenance provenance = Replication.provenance();
+        if (provenance == null) return;
+
+        long now = System.currentTimeMillis();
+        Timer.builder(APPLY_LATENCY)
+                .description("Time to apply a replicated change locally")
+                .tag("type", type.name())
+                .tag("op", operation.name())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        if (version == null) return;
+
+        long lagMs = Math.max(0, now - VersionClock.millisOf(version));
+        Timer.builder(LAG)
+                .description("Time from commit on the origin node to applied on this node")
+                .tag("type", type.name())
+                .tag("origin", String.valueOf(provenance.origin()))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry)
+                .record(lagMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Records one outbound call; {@code operation} is {@code BATCH} for mixed batches. */
+    public void sent(int target, ReplicationAggregate type, String operation, long startedNanos, boolean success) {
+        Timer.builder(SEND_LATENCY)
+                .description("Time to deliver a replication call to a peer")
+                .tag("target", String.valueOf(target))
+                .tag("type", type.name())
+                .tag("op", operation)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void retried(int target, ReplicationAggregate type) {
+        counter(RETRIES, "Replication attempts that failed and were scheduled again", target, type).increment();
+    }
+
+    public void parked(int target, ReplicationAggregate type) {
+        counter(PARKED, "Replication events that exhausted their attempts", target, type).increment();
+    }
+
+    public void updateBacklog(int target, Backlog value) {
+        backlog.put(target, value);
+    }
+
+    public Map<Integer, Backlog> backlog() {
+        return Map.copyOf(backlog);
+    }
+
+    private Counter counter(String name, String description, int target, ReplicationAggregate type) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("target", String.valueOf(target))
+                .tag("type", type.name())
+                .register(registry);
+    }
+}
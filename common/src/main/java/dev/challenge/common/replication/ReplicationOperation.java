@@ -0,0 +1,7 @@
+package dev.challenge.common.replication;
+
+public enum ReplicationOperation {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,86 @@
+package dev.challenge.common.replication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplicationOutbox {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Topology topology;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(ReplicationAggregate aggregateType, String aggregateId,
+                        ReplicationOperation operation, Object payload) {
+        write(aggregateType, operation, Collections.singletonMap(aggregateId, serialize(payload)));
+    }
+
+    /** Enqueues many aggregates of one type with a single batched insert, in the map's iteration order. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(ReplicationAggregate aggregateType, ReplicationOperation operation,
+                           Map<String, ?> payloadsByAggregateId) {
+        Map<String, String> bodies = new LinkedHashMap<>();
+        payloadsByAggregateId.forEach((aggregateId, payload) -> bodies.put(aggregateId, serialize(payload)));
+        write(aggregateType, operation, bodies);
+    }
+
+    private void write(ReplicationAggregate aggregateType, ReplicationOperation operation,
+                       Map<String, String> bodiesByAggregateId) {
+        if (bodiesByAggregateId.isEmpty()) return;
+        Provenance incoming = Replication.provenance();
+        List<Peer> targets = topology.targetsFor(incoming);
+        if (targets.isEmpty()) return;
+
+        Provenance provenance = topology.provenanceFor(incoming, targets);
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(targets.size() * bodiesByAggregateId.size());
+        for (Peer peer : targets) {
+            bodiesByAggregateId.forEach((aggregateId, body) -> events.add(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .operation(operation)
+                    .payload(body)
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .targetNode(peer.id())
+                    .originNode(provenance.origin())
+                    .seen(provenance.seenHeader())
+                    .build()));
+        }
+        repository.saveAll(events);
+        if (bodiesByAggregateId.size() == 1) {
+            log.debug("Replication enqueued. type={}, op={}, aggregateId={}, origin={}, targets={}",
+                    aggregateType, operation, bodiesByAggregateId.keySet().iterator().next(), provenance.origin(),
+                    targets.stream().map(Peer::id).toList());
+        } else {
+            log.debug("Replication enqueued. type={}, op={}, aggregates={}, origin={}, targets={}",
+                    aggregateType, operation, bodiesByAggregateId.size(), provenance.origin(),
+                    targets.stream().map(Peer::id).toList());
+        }
+    }
+
+    private String serialize(Object payload) {
+        if (payload == null) return null;
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize replication payload", e);
+        }
+    }
+}
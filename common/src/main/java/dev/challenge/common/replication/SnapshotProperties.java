@@ -0,0 +1,9 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.snapshot")
+public record SnapshotProperties(@DefaultValue("5000") int pageSize,
+                                 @DefaultValue("2000") int loadBatchSize) {
+}
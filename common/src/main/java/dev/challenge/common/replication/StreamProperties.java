@@ -0,0 +1,14 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.stream")
+public record StreamProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("/replication/stream") String path,
+                               @DefaultValue("3000") long connectTimeoutMs,
+                               @DefaultValue("5000") long ackTimeoutMs,
+                               @DefaultValue("5000") long reconnectDelayMs,
+                               @DefaultValue("4194304") int maxMessageBytes,
+                               @DefaultValue("8") int applyConcurrency) {
+}
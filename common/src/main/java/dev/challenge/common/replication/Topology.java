@@ -0,0 +1,69 @@
+package dev.challenge.common.replication;
+
+import dev.challenge.common.replication.TopologyProperties.Mode;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which peers receive a change. In a full mesh the origin sends to every peer and nobody
+ * forwards; in a star leaves only talk to the hub and the hub forwards to every peer that has not
+ * seen the change yet.
+ */
+public class Topology {
+
+    private final int self;
+    private final Mode mode;
+    private final Integer hub;
+    private final List<Peer> peers;
+
+    public Topology(int self, TopologyProperties props) {
+        this.self = self;
+        this.mode = props.mode();
+        this.hub = props.hub();
+        this.peers = List.copyOf(props.peers());
+        if (peers.stream().anyMatch(p -> p.id() == self)) {
+            throw new IllegalStateException("Replication topology lists this node (" + self + ") as its own peer");
+        }
+        if (mode == Mode.STAR) {
+            if (hub == null) {
+                throw new IllegalStateException("replication.topology.hub is required for a star topology");
+            }
+            if (!isHub() && peers.stream().noneMatch(p -> p.id() == hub)) {
+                throw new IllegalStateException("Star leaf " + self + " must list hub " + hub + " as a peer");
+            }
+        }
+    }
+
+    public int self() {
+        return self;
+    }
+
+    public List<Peer> peers() {
+        return peers;
+    }
+
+    public List<Peer> targetsFor(Provenance incoming) {
+        if (incoming == null) {
+            return mode == Mode.STAR && !isHub()
+                    ? peers.stream().filter(p -> p.id() == hub).toList()
+                    : peers;
+        }
+        if (incoming.origin() == self || mode != Mode.STAR || !isHub()) {
+            return List.of();
+        }
+        return peers.stream()
+                .filter(p -> p.id() != incoming.origin() && !incoming.seen().contains(p.id()))
+                .toList();
+    }
+
+    public Provenance provenanceFor(Provenance incoming, List<Peer> targets) {
+        Provenance base = incoming == null ? new Provenance(self, Set.of()) : incoming;
+        return base.forwardedBy(self, targets.stream().map(Peer::id).toList());
+    }
+
+    private boolean isHub() {
+        return hub != null && hub == self;
+    }
+}
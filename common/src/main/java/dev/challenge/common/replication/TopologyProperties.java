@@ -0,0 +1,19 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "replication.topology")
+public record TopologyProperties(@DefaultValue("FULL_MESH") Mode mode,
+                                 Integer hub,
+                                 @DefaultValue List<Peer> peers) {
+
+    public enum Mode {
+        FULL_MESH,
+        STAR
+    }
+
+    public record Peer(int id, String url) {}
+}
@@ -0,0 +1,40 @@
+package dev.challenge.common.replication;
+
+/**
+ * Hybrid logical clock used to stamp replicated entities. The high bits follow wall-clock millis
+ * but never go backwards and always move past any version observed from a peer; the low bits hold
+ * the node id, so two nodes never issue the same version.
+ */
+public class VersionClock {
+
+    static final int NODE_BITS = 10;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+    private long logical;
+
+    public VersionClock(int nodeId) {
+        if (nodeId < 0 || nodeId > NODE_MASK) {
+            throw new IllegalArgumentException("replication.node.id must be between 0 and " + NODE_MASK);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public synchronized long next() {
+        logical = Math.max(System.currentTimeMillis(), logical + 1);
+        return (logical << NODE_BITS) | nodeId;
+    }
+
+    public static long millisOf(long version) {
+        return version >>> NODE_BITS;
+    }
+
+    public static int nodeOf(long version) {
+        return (int) (version & NODE_MASK);
+    }
+
+    public synchronized void observe(Long version) {
+        if (version == null) return;
+        logical = Math.max(logical, version >>> NODE_BITS);
+    }
+}
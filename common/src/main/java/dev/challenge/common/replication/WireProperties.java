@@ -0,0 +1,13 @@
+package dev.challenge.common.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "replication.wire")
+public record WireProperties(@DefaultValue("JSON") Format format) {
+
+    public enum Format {
+        JSON,
+        SMILE
+    }
+}
@@ -1,13 +1,24 @@
 package dev.challenge.servicea;
 
+import dev.challenge.common.replication.OutboxEvent;
+import dev.challenge.common.replication.OutboxEventRepository;
+import dev.challenge.servicea.cache.ReferenceCacheProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "dev.challenge")
+@EntityScan(basePackageClasses = {ServiceAApplication.class, OutboxEvent.class})
+@EnableJpaRepositories(basePackageClasses = {ServiceAApplication.class, OutboxEventRepository.class})
 @EnableFeignClients
 @EnableRetry
+@EnableScheduling
+@EnableConfigurationProperties(ReferenceCacheProperties.class)
 public class ServiceAApplication {
     public static void main(String[] args) {
         SpringApplication.run(ServiceAApplication.class, args);
@@ -2,12 +2,11 @@ package dev.challenge.servicea.adapters;
 
 import dev.challenge.common.dto.OrderDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.id.UuidV7;
 import dev.challenge.servicea.domain.Delivery;
 import dev.challenge.servicea.domain.Order;
 import dev.challenge.servicea.domain.User;
 
-import java.util.UUID;
-
 public final class OrderAdapter {
 
     private OrderAdapter(){}
@@ -20,12 +19,13 @@ public final class OrderAdapter {
                 .idDelivery(entity.getIdDelivery())
                 .externalId(entity.getExternalId())
                 .externalUserId(entity.getExternalUserId())
+                .version(entity.getVersion())
                 .build();
     }
 
     public static Order toNewEntity(OrderDTO dto, User user, Delivery delivery) {
         Order order = Order.builder()
-                .externalId(UUID.randomUUID().toString())
+                .externalId(UuidV7.nextString())
                 .build();
         updateMutableFields(dto, order, user, delivery);
         return order;
@@ -54,7 +54,8 @@ public final class OrderAdapter {
                 order.getExternalId(),
                 delivery.getName(),
                 delivery.getPhone() ,
-                user.getExternalId()
+                user.getExternalId(),
+                order.getVersion()
         );
     }
 }
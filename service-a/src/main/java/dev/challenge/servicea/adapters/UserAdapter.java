@@ -1,10 +1,10 @@
 package dev.challenge.servicea.adapters;
 
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.id.UuidV7;
 import dev.challenge.servicea.domain.User;
 
-import java.util.UUID;
-
 public final class UserAdapter {
 
     private UserAdapter() {}
@@ -15,6 +15,7 @@ public final class UserAdapter {
                 .name(user.getName())
                 .email(user.getEmail())
                 .externalId(user.getExternalId())
+                .version(user.getVersion())
                 .build();
     }
 
@@ -22,7 +23,8 @@ public final class UserAdapter {
         return User.builder()
                 .name(dto.name())
                 .email(dto.email())
-                .externalId(dto.externalId() != null ? dto.externalId() : UUID.randomUUID().toString())
+                .externalId(dto.externalId() != null ? ExternalIds.canonical(dto.externalId()) : UuidV7.nextString())
+                .version(dto.version() != null ? dto.version() : 0L)
                 .build();
     }
 
@@ -0,0 +1,123 @@
+package dev.challenge.servicea.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.challenge.servicea.domain.Delivery;
+import dev.challenge.servicea.domain.User;
+import dev.challenge.servicea.repo.DeliveryRepository;
+import dev.challenge.servicea.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Users and deliveries referenced by order writes, held as detached copies. Mutations evict their key once the
+ * transaction commits; a load that overlaps an eviction is returned but not cached, so a stale row read before
+ * the commit cannot repopulate the entry.
+ */
+@Slf4j
+@Component
+public class ReferenceCache {
+
+    private final UserRepository userRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final Cache<String, User> usersByExternalId;
+    private final Cache<Long, Delivery> deliveriesById;
+    private final AtomicLong userEvictions = new AtomicLong();
+    private final AtomicLong deliveryEvictions = new AtomicLong();
+
+    public ReferenceCache(UserRepository userRepository, DeliveryRepository deliveryRepository,
+                          ReferenceCacheProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.usersByExternalId = Caffeine.newBuilder()
+                .maximumSize(properties.maxUsers())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.deliveriesById = Caffeine.newBuilder()
+                .maximumSize(properties.maxDeliveries())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByExternalId, "orders.users");
+        CaffeineCacheMetrics.monitor(meterRegistry, deliveriesById, "orders.deliveries");
+    }
+
+    public Optional<User> user(String externalId) {
+        return lookup(usersByExternalId, userEvictions, externalId,
+                () -> userRepository.findByExternalId(externalId).map(ReferenceCache::copy));
+    }
+
+    public Optional<Delivery> delivery(Long id) {
+        return lookup(deliveriesById, deliveryEvictions, id,
+                () -> deliveryRepository.findById(id).map(ReferenceCache::copy));
+    }
+
+    public void evictUser(String externalId) {
+        afterCommit(() -> {
+            userEvictions.incrementAndGet();
+            usersByExternalId.invalidate(externalId);
+            log.debug("User evicted from reference cache. externalId={}", externalId);
+        });
+    }
+
+    public void evictDelivery(Long id) {
+        afterCommit(() -> {
+            deliveryEvictions.incrementAndGet();
+            deliveriesById.invalidate(id);
+            log.debug("Delivery evicted from reference cache. id={}", id);
+        });
+    }
+
+    private static <K, V> Optional<V> lookup(Cache<K, V> cache, AtomicLong evictions, K key,
+                                             Supplier<Optional<V>> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) return Optional.of(cached);
+
+        long generation = evictions.get();
+        Optional<V> loaded = loader.get();
+        if (loaded.isPresent() && evictions.get() == generation) {
+            cache.put(key, loaded.get());
+        }
+        return loaded;
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .externalId(user.getExternalId())
+                .version(user.getVersion())
+                .build();
+    }
+
+    private static Delivery copy(Delivery delivery) {
+        return Delivery.builder()
+                .id(delivery.getId())
+                .name(delivery.getName())
+                .phone(delivery.getPhone())
+                .build();
+    }
+}
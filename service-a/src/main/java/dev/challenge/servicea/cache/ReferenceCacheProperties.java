@@ -0,0 +1,12 @@
+package dev.challenge.servicea.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "orders.reference-cache")
+public record ReferenceCacheProperties(@DefaultValue("10000") long maxUsers,
+                                       @DefaultValue("1000") long maxDeliveries,
+                                       @DefaultValue("10m") Duration ttl) {
+}
@@ -1,17 +1,21 @@
 package dev.challenge.servicea.controllers;
 
 import dev.challenge.common.dto.DeliveryDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.servicea.services.DeliveryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -64,14 +68,32 @@ public class DeliveryController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar entregadores", description = "Lista todos os entregadores")
+    @Operation(summary = "Listar entregadores", description = "Lista entregadores paginados por cursor (keyset); siga o link next para a próxima página")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "204", description = "Nenhum entregador cadastrado"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<PageDTO<DeliveryDTO>> listDeliverys(
+            @Parameter(description = "Cursor opaco retornado em nextCursor da página anterior")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página (1 a 500, padrão 50)")
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Cursor.ok(service.listDeliveries(cursor, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar entregadores (NDJSON)", description = "Com Accept: application/x-ndjson, transmite todos os entregadores (um JSON por linha) sem carregar a tabela em memória")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Proibido"),
             @ApiResponse(responseCode = "500", description = "Erro interno")
     })
-    public ResponseEntity<List<DeliveryDTO>> listDeliverys() {
-        return ResponseEntity.ok(service.listDeliveries());
+    public ResponseEntity<StreamingResponseBody> streamDeliveries() {
+        return NdjsonWriter.response(service::streamDeliveries);
     }
 }
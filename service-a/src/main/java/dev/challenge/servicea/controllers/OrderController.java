@@ -1,15 +1,21 @@
 package dev.challenge.servicea.controllers;
 
 import dev.challenge.common.dto.OrderDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.servicea.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -35,6 +41,20 @@ public class OrderController {
         return ResponseEntity.status(201).body(service.createOrder(dto));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Criar pedidos em lote", description = "Cria até 1000 pedidos em uma única transação; usuários e entregas são resolvidos de uma vez e os pedidos são replicados em lote")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Criados"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou lote vazio/grande demais"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "404", description = "Usuário ou entrega não encontrado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<List<OrderDTO>> createOrders(@RequestBody List<OrderDTO> dtos) {
+        return ResponseEntity.status(201).body(service.createOrders(dtos));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar pedido", description = "Atualiza um pedido existente")
     @ApiResponses({
@@ -64,14 +84,32 @@ public class OrderController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar pedidos", description = "Lista todos os pedidos")
+    @Operation(summary = "Listar pedidos", description = "Lista pedidos paginados por cursor (keyset); siga o link next para a próxima página")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "204", description = "Nenhum pedido cadastrado"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<PageDTO<OrderDTO>> listOrders(
+            @Parameter(description = "Cursor opaco retornado em nextCursor da página anterior")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página (1 a 500, padrão 50)")
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Cursor.ok(service.listOrders(cursor, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pedidos (NDJSON)", description = "Com Accept: application/x-ndjson, transmite todos os pedidos (um JSON por linha) sem carregar a tabela em memória")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Proibido"),
             @ApiResponse(responseCode = "500", description = "Erro interno")
     })
-    public ResponseEntity<List<OrderDTO>> listOrders() {
-        return ResponseEntity.ok(service.listOrders());
+    public ResponseEntity<StreamingResponseBody> streamOrders() {
+        return NdjsonWriter.response(service::streamOrders);
     }
 }
@@ -0,0 +1,56 @@
+package dev.challenge.servicea.controllers;
+
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.servicea.replication.SnapshotExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/replication/snapshot")
+@Tag(name = "Snapshot (Service A)", description = "Exportação consistente para inicializar uma réplica nova")
+public class SnapshotController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SnapshotExporter exporter;
+
+    @GetMapping(value = "/{aggregate}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar snapshot", description = "Transmite todas as linhas em NDJSON; a primeira linha traz o watermark do outbox")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable("aggregate") ReplicationAggregate aggregate) {
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            exporter.export(aggregate, buffered);
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/resume")
+    @Operation(summary = "Retomar replicação", description = "Rearma todos os eventos do outbox estacionados para o nó que carregou o snapshot")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Retomado"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<Void> resume(@RequestParam("node") int node) {
+        exporter.resume(node);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,17 +1,21 @@
 package dev.challenge.servicea.controllers;
 
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.servicea.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -64,14 +68,32 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar usuários", description = "Lista todos os usuários")
+    @Operation(summary = "Listar usuários", description = "Lista usuários paginados por cursor (keyset); siga o link next para a próxima página")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "204", description = "Nenhum usuário cadastrado"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<PageDTO<UserDTO>> listUsers(
+            @Parameter(description = "Cursor opaco retornado em nextCursor da página anterior")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página (1 a 500, padrão 50)")
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Cursor.ok(service.listUsers(cursor, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar usuários (NDJSON)", description = "Com Accept: application/x-ndjson, transmite todos os usuários (um JSON por linha) sem carregar a tabela em memória")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Proibido"),
             @ApiResponse(responseCode = "500", description = "Erro interno")
     })
-    public ResponseEntity<List<UserDTO>> listUsers() {
-        return ResponseEntity.ok(service.listUsers());
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return NdjsonWriter.response(service::streamUsers);
     }
 }
@@ -13,7 +13,8 @@ import lombok.*;
 public class Delivery {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entregador_id_seq")
+    @SequenceGenerator(name = "entregador_id_seq", sequenceName = "entregador_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome", nullable = false, length = 120)
@@ -1,5 +1,6 @@
 package dev.challenge.servicea.domain;
 
+import dev.challenge.common.id.UuidStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,7 +16,8 @@ import java.math.BigDecimal;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_id_seq")
+    @SequenceGenerator(name = "pedido_id_seq", sequenceName = "pedido_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "descricao", nullable = false, length = 255)
@@ -30,9 +32,14 @@ public class Order {
     @Column(name = "id_entregador", nullable = false)
     private Long idDelivery;
 
-    @Column(name = "external_id", nullable = false, unique = true, length = 50)
+    @Convert(converter = UuidStringConverter.class)
+    @Column(name = "external_id", nullable = false, unique = true)
     private String externalId;
 
-    @Column(name = "external_user_id", nullable = false, length = 50)
+    @Convert(converter = UuidStringConverter.class)
+    @Column(name = "external_user_id", nullable = false)
     private String externalUserId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -1,5 +1,6 @@
 package dev.challenge.servicea.domain;
 
+import dev.challenge.common.id.UuidStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,7 +14,8 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_id_seq")
+    @SequenceGenerator(name = "usuario_id_seq", sequenceName = "usuario_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome", nullable = false, length = 120)
@@ -22,6 +24,10 @@ public class User {
     @Column(name = "email", nullable = false, length = 180, unique = true)
     private String email;
 
-    @Column(name = "external_id", nullable = false, unique = true, length = 50)
+    @Convert(converter = UuidStringConverter.class)
+    @Column(name = "external_id", nullable = false, unique = true)
     private String externalId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -0,0 +1,27 @@
+package dev.challenge.servicea.feign;
+
+import dev.challenge.common.configuration.ReplicationFeignConfig;
+import dev.challenge.common.dto.BucketEntryDTO;
+import dev.challenge.common.dto.MerkleNodesRequestDTO;
+import dev.challenge.common.dto.MerkleRootDTO;
+import dev.challenge.common.replication.ReplicationAggregate;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@FeignClient(name = "merkle-b", url = "${service.b.url}", configuration = ReplicationFeignConfig.class)
+public interface MerkleBClient {
+
+    @GetMapping("/replication/merkle/{aggregate}")
+    MerkleRootDTO root(@PathVariable("aggregate") ReplicationAggregate aggregate);
+
+    @PostMapping("/replication/merkle/{aggregate}/{snapshotId}/nodes")
+    List<String> nodes(@PathVariable("aggregate") ReplicationAggregate aggregate,
+                       @PathVariable("snapshotId") String snapshotId,
+                       @RequestBody MerkleNodesRequestDTO request);
+
+    @GetMapping("/replication/merkle/{aggregate}/buckets/{bucket}")
+    List<BucketEntryDTO> bucket(@PathVariable("aggregate") ReplicationAggregate aggregate,
+                                @PathVariable("bucket") int bucket);
+}
@@ -1,11 +1,17 @@
 package dev.challenge.servicea.feign;
 
 import dev.challenge.common.configuration.ReplicationFeignConfig;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
 import dev.challenge.common.dto.OrderDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.replication.Replication;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 @FeignClient(name = "oder-b", url = "${service.b.url}", configuration = ReplicationFeignConfig.class)
 public interface OrderBClient {
 
@@ -17,4 +23,10 @@ public interface OrderBClient {
 
     @DeleteMapping("/pedidos/{id}")
     void deleteOrder(@PathVariable("id") String id);
+
+    @PostMapping("/pedidos/batch")
+    List<BatchItemResultDTO> applyOrderBatch(URI target,
+                                             @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                                             @RequestHeader(Replication.SEEN_HEADER) String seen,
+                                             @RequestBody List<OrderBatchItemDTO> items);
 }
@@ -1,10 +1,16 @@
 package dev.challenge.servicea.feign;
 
 import dev.challenge.common.configuration.ReplicationFeignConfig;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.replication.Replication;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 @FeignClient(name = "user-b", url = "${service.b.url}", configuration = ReplicationFeignConfig.class)
 public interface UserBClient {
 
@@ -17,4 +23,10 @@ public interface UserBClient {
     @DeleteMapping("/usuarios/{id}")
     void deleteUser(@PathVariable("id") String id);
 
+    @PostMapping("/usuarios/batch")
+    List<BatchItemResultDTO> applyUserBatch(URI target,
+                                            @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                                            @RequestHeader(Replication.SEEN_HEADER) String seen,
+                                            @RequestBody List<UserBatchItemDTO> items);
+
 }
@@ -1,18 +1,26 @@
 package dev.challenge.servicea.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.challenge.common.dto.DeliveryDTO;
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.error.CustomException;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.servicea.adapters.DeliveryAdapter;
+import dev.challenge.servicea.cache.ReferenceCache;
 import dev.challenge.servicea.domain.Delivery;
 import dev.challenge.servicea.repo.DeliveryRepository;
 import dev.challenge.servicea.services.DeliveryService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -21,6 +29,9 @@ import java.util.List;
 public class DeliveryServiceImpl implements DeliveryService {
 
     private final DeliveryRepository deliveryRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ReferenceCache referenceCache;
 
     @Override
     @Transactional
@@ -47,6 +58,7 @@ public class DeliveryServiceImpl implements DeliveryService {
         try {
             DeliveryAdapter.updateEntityFromDto(dto, entity);
             Delivery saved = deliveryRepository.save(entity);
+            referenceCache.evictDelivery(id);
             log.info("Delivery updated. id={}", saved.getId());
             return DeliveryAdapter.toDeliveryDTO(saved);
         } catch (Exception e) {
@@ -65,6 +77,7 @@ public class DeliveryServiceImpl implements DeliveryService {
 
         try {
             deliveryRepository.deleteById(id);
+            referenceCache.evictDelivery(id);
             log.info("Delivery deleted. id={}", id);
         } catch (Exception e) {
             log.error("Error deleting delivery. id={}", id, e);
@@ -74,20 +87,20 @@ public class DeliveryServiceImpl implements DeliveryService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<DeliveryDTO> listDeliveries() {
-        log.info("Listing deliveries...");
-        List<DeliveryDTO> result;
+    public PageDTO<DeliveryDTO> listDeliveries(String cursor, Integer limit) {
+        long after = Cursor.decode(cursor);
+        int size = Cursor.limit(limit);
+        log.info("Listing deliveries... after={}, limit={}", after, size);
         try {
-            result = deliveryRepository.findAll()
-                    .stream()
-                    .map(DeliveryAdapter::toDeliveryDTO)
-                    .toList();
-            if (result.isEmpty()) {
+            PageDTO<DeliveryDTO> page = Cursor.page(
+                    deliveryRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1)),
+                    size, Delivery::getId, DeliveryAdapter::toDeliveryDTO);
+            if (page.items().isEmpty() && after == 0) {
                 log.warn("No deliveries found.");
                 throw new CustomException(HttpStatus.NO_CONTENT, "No deliveries found.");
             }
-            log.info("Listing completed. total={}", result.size());
-            return result;
+            log.info("Listing completed. total={}, hasNext={}", page.size(), page.nextCursor() != null);
+            return page;
         } catch (CustomException e) {
             throw e;
         } catch (Exception e) {
@@ -96,6 +109,22 @@ public class DeliveryServiceImpl implements DeliveryService {
         }
     }
 
+    @Override
+    public void streamDeliveries(OutputStream out) {
+        log.info("Streaming deliveries...");
+        NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+        try (Stream<Delivery> rows = deliveryRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(delivery -> {
+                writer.write(DeliveryAdapter.toDeliveryDTO(delivery));
+                entityManager.detach(delivery);
+            });
+            log.info("Streaming completed. total={}", writer.rows());
+        } catch (RuntimeException e) {
+            log.error("Error streaming deliveries. written={}", writer.rows(), e);
+            throw e;
+        }
+    }
+
 }
 
 
@@ -1,25 +1,49 @@
 package dev.challenge.servicea.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.challenge.common.dto.OrderDTO;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.error.CustomException;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.common.replication.Replication;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationMetrics;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
 import dev.challenge.servicea.adapters.OrderAdapter;
+import dev.challenge.servicea.cache.ReferenceCache;
 import dev.challenge.servicea.domain.Delivery;
 import dev.challenge.servicea.domain.Order;
 import dev.challenge.servicea.domain.User;
-import dev.challenge.servicea.feign.OrderBClient;
 import dev.challenge.servicea.replication.Force422;
 import dev.challenge.servicea.repo.DeliveryRepository;
 import dev.challenge.servicea.repo.OrderRepository;
 import dev.challenge.servicea.repo.UserRepository;
 import dev.challenge.servicea.services.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -27,20 +51,35 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    static final int MAX_BULK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final DeliveryRepository deliveryRepository;
     private final UserRepository userRepository;
-    private final OrderBClient client;
+    private final ReplicationOutbox outbox;
     private final Force422 force422;
+    private final VersionClock versionClock;
+    private final ReplicationMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ReferenceCache referenceCache;
 
     private User requireUserByExternalId(String externalUserId) {
-        return userRepository.findByExternalId(externalUserId)
+        String canonical = ExternalIds.require(externalUserId, "externalUserId");
+        return referenceCache.user(canonical)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
-                        "User not found (externalId: " + externalUserId + ")"));
+                        "User not found (externalId: " + canonical + ")"));
+    }
+
+    private Order requireOrder(String externalId) {
+        return orderRepository.findByExternalId(externalId)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
+                        "Order not found (externalId: " + externalId + ")"));
     }
 
     private Delivery requireDelivery(Long idDelivery) {
-        return deliveryRepository.findById(idDelivery)
+        return referenceCache.delivery(idDelivery)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
                         "Delivery not found (id: " + idDelivery + ")"));
     }
@@ -48,12 +87,21 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderDTO createOrder(OrderDTO dto) {
+        long started = System.nanoTime();
         User user = requireUserByExternalId(dto.externalUserId());
         Delivery delivery = requireDelivery(dto.idDelivery());
+        String externalId = dto.externalId() != null ? ExternalIds.require(dto.externalId(), "externalId") : null;
+        if (Replication.incoming() && externalId != null && dto.version() != null
+                && orderRepository.existsByExternalId(externalId)) {
+            log.info("Replicated create for existing order applied as update. externalId={}", externalId);
+            return applyReplicatedUpdate(externalId, dto, user, delivery, started);
+        }
 
         log.info("Creating order... externalUserId={}, deliveryId={}", dto.externalUserId(), dto.idDelivery());
         try {
-            Order saved = orderRepository.save(OrderAdapter.toNewEntity(dto, user, delivery));
+            Order entity = OrderAdapter.toNewEntity(dto, user, delivery);
+            entity.setVersion(stamp(dto.version()));
+            Order saved = orderRepository.save(entity);
 
             if (!Replication.incoming()) {
                 force422.registerLocalCreateSuccess();
@@ -61,9 +109,12 @@ public class OrderServiceImpl implements OrderService {
                     throw new CustomException(HttpStatus.UNPROCESSABLE_ENTITY,
                             "Intentional exception for evaluation (case 5.1)");
                 }
-                client.createOrder(OrderAdapter.toReplica(saved, delivery, user));
             }
 
+            outbox.enqueue(ReplicationAggregate.ORDER, saved.getExternalId(), ReplicationOperation.CREATE,
+                    OrderAdapter.toReplica(saved, delivery, user));
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.CREATE, saved.getVersion(), started);
+
             log.info("Order created. externalId={}", saved.getExternalId());
             return OrderAdapter.toOrderDTO(saved);
         } catch (Exception e) {
@@ -72,24 +123,110 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<OrderDTO> createOrders(List<OrderDTO> dtos) {
+        long started = System.nanoTime();
+        if (dtos == null || dtos.isEmpty()) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "At least one order is required");
+        }
+        if (dtos.size() > MAX_BULK_SIZE) {
+            throw new CustomException(HttpStatus.BAD_REQUEST,
+                    "Too many orders in one request (max: " + MAX_BULK_SIZE + ", received: " + dtos.size() + ")");
+        }
+        validateAll(dtos);
+
+        Set<String> externalUserIds = dtos.stream()
+                .map(dto -> ExternalIds.canonical(dto.externalUserId()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> deliveryIds = dtos.stream().map(OrderDTO::idDelivery).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, User> users = userRepository.findByExternalIdIn(externalUserIds).stream()
+                .collect(Collectors.toMap(User::getExternalId, Function.identity()));
+        Map<Long, Delivery> deliveries = deliveryRepository.findAllById(deliveryIds).stream()
+                .collect(Collectors.toMap(Delivery::getId, Function.identity()));
+        requireAll("User", "externalId", externalUserIds, users.keySet());
+        requireAll("Delivery", "id", deliveryIds, deliveries.keySet());
+
+        log.info("Creating orders in bulk... size={}, users={}, deliveries={}", dtos.size(), users.size(), deliveries.size());
+        try {
+            List<Order> entities = new ArrayList<>(dtos.size());
+            for (OrderDTO dto : dtos) {
+                Order entity = OrderAdapter.toNewEntity(dto, users.get(ExternalIds.canonical(dto.externalUserId())),
+                        deliveries.get(dto.idDelivery()));
+                entity.setVersion(versionClock.next());
+                entities.add(entity);
+            }
+            List<Order> saved = orderRepository.saveAll(entities);
+
+            Map<String, OrderReplicaDTO> replicas = new LinkedHashMap<>();
+            for (Order order : saved) {
+                replicas.put(order.getExternalId(), OrderAdapter.toReplica(order,
+                        deliveries.get(order.getIdDelivery()), users.get(order.getExternalUserId())));
+            }
+            outbox.enqueueAll(ReplicationAggregate.ORDER, ReplicationOperation.CREATE, replicas);
+            saved.forEach(order -> metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.CREATE,
+                    order.getVersion(), started));
+
+            log.info("Orders created in bulk. size={}", saved.size());
+            return saved.stream().map(OrderAdapter::toOrderDTO).toList();
+        } catch (Exception e) {
+            log.error("Error creating orders in bulk. size={}", dtos.size(), e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error creating orders");
+        }
+    }
+
+    private void validateAll(List<OrderDTO> dtos) {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderDTO dto = dtos.get(i);
+            if (dto == null) {
+                errors.add("[" + i + "] order is required");
+                continue;
+            }
+            Set<ConstraintViolation<OrderDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                errors.add("[" + i + "] " + violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (!ExternalIds.isValid(dto.externalUserId())) {
+                errors.add("[" + i + "] externalUserId must be a UUID");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid orders: " + String.join("; ", errors));
+        }
+    }
+
+    private static <K> void requireAll(String entity, String key, Set<K> requested, Set<K> found) {
+        List<K> missing = requested.stream().filter(id -> !found.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new CustomException(HttpStatus.NOT_FOUND, entity + " not found (" + key + ": " + missing + ")");
+        }
+    }
+
     @Override
     @Transactional
     public OrderDTO updateOrder(String externalId, OrderDTO dto) {
+        long started = System.nanoTime();
+        externalId = ExternalIds.require(externalId, "externalId");
         User user = requireUserByExternalId(dto.externalUserId());
-        Order found = orderRepository.findByExternalId(externalId)
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
-                        "Order not found (externalId: " + externalId + ")"));
+        if (Replication.incoming() && dto.version() != null) {
+            return applyReplicatedUpdate(externalId, dto, user, requireDelivery(dto.idDelivery()), started);
+        }
+
+        Order found = requireOrder(externalId);
         Delivery delivery = requireDelivery(dto.idDelivery());
 
         log.info("Updating order... externalId={}, externalUserId={}, deliveryId={}",
                 externalId, dto.externalUserId(), dto.idDelivery());
         try {
             OrderAdapter.updateEntityFromDto(dto, found, user, delivery);
+            found.setVersion(versionClock.next());
             Order saved = orderRepository.save(found);
 
-            if (!Replication.incoming()) {
-                client.updateOrder(externalId, OrderAdapter.toReplica(saved, delivery, user));
-            }
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.UPDATE,
+                    OrderAdapter.toReplica(saved, delivery, user));
 
             log.info("Order updated. externalId={}", saved.getExternalId());
             return OrderAdapter.toOrderDTO(saved);
@@ -99,12 +236,54 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    private OrderDTO applyReplicatedUpdate(String externalId, OrderDTO dto, User user, Delivery delivery,
+                                           long started) {
+        versionClock.observe(dto.version());
+        int updated;
+        try {
+            updated = orderRepository.applyReplicatedUpdate(externalId, dto.description(), dto.value(),
+                    user.getId(), delivery.getId(), user.getExternalId(), dto.version());
+        } catch (Exception e) {
+            log.error("Error updating order from replica. externalId={}", externalId, e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error updating order");
+        }
+
+        if (updated == 0) {
+            if (!orderRepository.existsByExternalId(externalId)) {
+                throw new CustomException(HttpStatus.NOT_FOUND,
+                        "Order not found (externalId: " + externalId + ")");
+            }
+            log.info("Stale replicated order update skipped. externalId={}, version={}", externalId, dto.version());
+        } else {
+            log.info("Order updated from replica. externalId={}, version={}", externalId, dto.version());
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.UPDATE,
+                    new OrderReplicaDTO(null, dto.description(), dto.value(), externalId, delivery.getName(),
+                            delivery.getPhone(), user.getExternalId(), dto.version()));
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.UPDATE, dto.version(), started);
+        }
+        return dto;
+    }
+
+    private long stamp(Long incomingVersion) {
+        if (Replication.incoming() && incomingVersion != null) {
+            versionClock.observe(incomingVersion);
+            return incomingVersion;
+        }
+        return versionClock.next();
+    }
+
     @Override
     @Transactional
     public void deleteOrder(String externalId) {
+        long started = System.nanoTime();
         log.info("Deleting order... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
 
         boolean exists = orderRepository.existsByExternalId(externalId);
+        if (!exists && Replication.incoming()) {
+            log.info("Replicated order delete already applied. externalId={}", externalId);
+            return;
+        }
         if (!exists) {
             log.warn("Order not found for deletion. externalId={}", externalId);
             throw new CustomException(HttpStatus.NOT_FOUND,
@@ -114,9 +293,8 @@ public class OrderServiceImpl implements OrderService {
         try {
             orderRepository.deleteByExternalId(externalId);
 
-            if (!Replication.incoming()) {
-                replicateDelete(externalId);
-            }
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.DELETE, null);
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.DELETE, null, started);
 
             log.info("Order deleted. externalId={}", externalId);
         } catch (Exception e) {
@@ -126,36 +304,43 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderDTO> listOrders() {
-        log.info("Listing orders...");
+    public PageDTO<OrderDTO> listOrders(String cursor, Integer limit) {
+        long after = Cursor.decode(cursor);
+        int size = Cursor.limit(limit);
+        log.info("Listing orders... after={}, limit={}", after, size);
         try {
-            List<OrderDTO> list = orderRepository.findAll().stream()
-                    .map(OrderAdapter::toOrderDTO)
-                    .toList();
+            PageDTO<OrderDTO> page = Cursor.page(
+                    orderRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1)),
+                    size, Order::getId, OrderAdapter::toOrderDTO);
 
-            if (list.isEmpty()) {
+            if (page.items().isEmpty() && after == 0) {
                 log.warn("No orders found.");
                 throw new CustomException(HttpStatus.NO_CONTENT, "No orders found.");
             }
 
-            log.info("Listing completed. total={}", list.size());
-            return list;
+            log.info("Listing completed. total={}, hasNext={}", page.size(), page.nextCursor() != null);
+            return page;
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error listing orders.", e);
             throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error listing orders");
         }
     }
 
-    private void replicateDelete(String externalId) {
-        try {
-            client.deleteOrder(externalId);
-            log.info("Delete replication sent to Service B. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate order deletion to Service B. externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate order deletion to Service B (externalId: " + externalId + ")");
+    @Override
+    public void streamOrders(OutputStream out) {
+        log.info("Streaming orders...");
+        NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+        try (Stream<Order> rows = orderRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(order -> {
+                writer.write(OrderAdapter.toOrderDTO(order));
+                entityManager.detach(order);
+            });
+            log.info("Streaming completed. total={}", writer.rows());
+        } catch (RuntimeException e) {
+            log.error("Error streaming orders. written={}", writer.rows(), e);
+            throw e;
         }
     }
 }
-
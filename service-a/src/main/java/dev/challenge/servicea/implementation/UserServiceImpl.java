@@ -1,21 +1,34 @@
 package dev.challenge.servicea.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.dto.UserDTO;
 import dev.challenge.common.error.CustomException;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.common.replication.Replication;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationMetrics;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
 import dev.challenge.servicea.adapters.UserAdapter;
+import dev.challenge.servicea.cache.ReferenceCache;
 import dev.challenge.servicea.domain.User;
-import dev.challenge.servicea.feign.UserBClient;
 import dev.challenge.servicea.replication.Force422;
 import dev.challenge.servicea.repo.UserRepository;
 import dev.challenge.servicea.services.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -24,14 +37,28 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final UserBClient client;
+    private final ReplicationOutbox outbox;
     private final Force422 force422;
+    private final VersionClock versionClock;
+    private final ReplicationMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ReferenceCache referenceCache;
 
     @Override
     @Transactional
     public UserDTO createUser(UserDTO dto) {
+        long started = System.nanoTime();
+        String externalId = dto.externalId() != null ? ExternalIds.require(dto.externalId(), "externalId") : null;
+        if (Replication.incoming() && externalId != null && dto.version() != null
+                && userRepository.existsByExternalId(externalId)) {
+            log.info("Replicated create for existing user applied as update. externalId={}", externalId);
+            return applyReplicatedUpdate(externalId, dto, started);
+        }
         try {
-            User saved = userRepository.save(UserAdapter.toNewEntity(dto));
+            User entity = UserAdapter.toNewEntity(dto);
+            entity.setVersion(stamp(dto.version()));
+            User saved = userRepository.save(entity);
             UserDTO out = UserAdapter.toUserDTO(saved);
 
             log.info("User created. id={}, externalId={}", saved.getId(), saved.getExternalId());
@@ -42,8 +69,10 @@ public class UserServiceImpl implements UserService {
                     throw new CustomException(HttpStatus.UNPROCESSABLE_ENTITY,
                             "Intentional exception for evaluation (case 5.1)");
                 }
-                replicateCreate(out);
             }
+
+            outbox.enqueue(ReplicationAggregate.USER, out.externalId(), ReplicationOperation.CREATE, out);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.CREATE, out.version(), started);
             return out;
         } catch (Exception e) {
             log.error("Error creating user. payload={}", dto, e);
@@ -54,23 +83,24 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDTO updateUser(String externalId, UserDTO dto) {
+        long started = System.nanoTime();
         log.info("Updating user... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
 
-        User found = userRepository.findByExternalId(externalId)
-                .orElseThrow(() -> {
-                    log.warn("User not found for update. externalId={}", externalId);
-                    return new CustomException(HttpStatus.NOT_FOUND,
-                            "User not found (externalId: " + externalId + ")");
-                });
+        if (Replication.incoming() && dto.version() != null) {
+            return applyReplicatedUpdate(externalId, dto, started);
+        }
+
+        User found = requireUserForUpdate(externalId);
 
         try {
             UserAdapter.updateEntityFromDto(dto, found);
+            found.setVersion(versionClock.next());
             User saved = userRepository.save(found);
             UserDTO out = UserAdapter.toUserDTO(saved);
+            referenceCache.evictUser(externalId);
 
-            if (!Replication.incoming()) {
-                replicateUpdate(externalId, out);
-            }
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.UPDATE, out);
 
             log.info("User updated. externalId={}", externalId);
             return out;
@@ -80,12 +110,61 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    private User requireUserForUpdate(String externalId) {
+        return userRepository.findByExternalId(externalId)
+                .orElseThrow(() -> {
+                    log.warn("User not found for update. externalId={}", externalId);
+                    return new CustomException(HttpStatus.NOT_FOUND,
+                            "User not found (externalId: " + externalId + ")");
+                });
+    }
+
+    private UserDTO applyReplicatedUpdate(String externalId, UserDTO dto, long started) {
+        versionClock.observe(dto.version());
+        int updated;
+        try {
+            updated = userRepository.applyReplicatedUpdate(externalId, dto.name(), dto.email(), dto.version());
+        } catch (Exception e) {
+            log.error("Error updating user from replica. externalId={}, payload={}", externalId, dto, e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error updating user");
+        }
+
+        if (updated == 0) {
+            if (!userRepository.existsByExternalId(externalId)) {
+                log.warn("User not found for update. externalId={}", externalId);
+                throw new CustomException(HttpStatus.NOT_FOUND,
+                        "User not found (externalId: " + externalId + ")");
+            }
+            log.info("Stale replicated user update skipped. externalId={}, version={}", externalId, dto.version());
+        } else {
+            log.info("User updated from replica. externalId={}, version={}", externalId, dto.version());
+            referenceCache.evictUser(externalId);
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.UPDATE, dto);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.UPDATE, dto.version(), started);
+        }
+        return dto;
+    }
+
+    private long stamp(Long incomingVersion) {
+        if (Replication.incoming() && incomingVersion != null) {
+            versionClock.observe(incomingVersion);
+            return incomingVersion;
+        }
+        return versionClock.next();
+    }
+
     @Override
     @Transactional
     public void deleteUser(String externalId) {
+        long started = System.nanoTime();
         log.info("Deleting user... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
 
         boolean exists = userRepository.existsByExternalId(externalId);
+        if (!exists && Replication.incoming()) {
+            log.info("Replicated user delete already applied. externalId={}", externalId);
+            return;
+        }
         if (!exists) {
             log.warn("User not found for deletion. externalId={}", externalId);
             throw new CustomException(HttpStatus.NOT_FOUND,
@@ -94,10 +173,10 @@ public class UserServiceImpl implements UserService {
 
         try {
             userRepository.deleteByExternalId(externalId);
+            referenceCache.evictUser(externalId);
 
-            if (!Replication.incoming()) {
-                replicateDelete(externalId);
-            }
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.DELETE, null);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.DELETE, null, started);
 
             log.info("User deleted. externalId={}", externalId);
         } catch (Exception e) {
@@ -107,59 +186,43 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDTO> listUsers() {
-        log.info("Listing users...");
+    public PageDTO<UserDTO> listUsers(String cursor, Integer limit) {
+        long after = Cursor.decode(cursor);
+        int size = Cursor.limit(limit);
+        log.info("Listing users... after={}, limit={}", after, size);
         try {
-            List<UserDTO> list = userRepository.findAll().stream()
-                    .map(UserAdapter::toUserDTO)
-                    .toList();
+            PageDTO<UserDTO> page = Cursor.page(
+                    userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1)),
+                    size, User::getId, UserAdapter::toUserDTO);
 
-            if (list.isEmpty()) {
+            if (page.items().isEmpty() && after == 0) {
                 log.warn("No users found.");
                 throw new CustomException(HttpStatus.NO_CONTENT, "No users found.");
             }
 
-            log.info("Listing completed. total={}", list.size());
-            return list;
+            log.info("Listing completed. total={}, hasNext={}", page.size(), page.nextCursor() != null);
+            return page;
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error listing users.", e);
             throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error listing users");
         }
     }
 
-    private void replicateCreate(UserDTO out) {
-        try {
-            client.createUser(out);
-            log.info("Create replication sent to Service B. externalId={}", out.externalId());
-        } catch (Exception e) {
-            log.error("Failed to replicate user (create). externalId={}, err={}",
-                    out.externalId(), e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate user to Service B");
-        }
-    }
-
-    private void replicateUpdate(String externalId, UserDTO out) {
-        try {
-            client.updateUser(externalId, out);
-            log.info("Update replication sent to Service B. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate user (update). externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate user update to Service B (externalId: " + externalId + ")");
-        }
-    }
-
-    private void replicateDelete(String externalId) {
-        try {
-            client.deleteUser(externalId);
-            log.info("Delete replication sent to Service B. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate user (delete). externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate user deletion to Service B (externalId: " + externalId + ")");
+    @Override
+    public void streamUsers(OutputStream out) {
+        log.info("Streaming users...");
+        NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+        try (Stream<User> rows = userRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(user -> {
+                writer.write(UserAdapter.toUserDTO(user));
+                entityManager.detach(user);
+            });
+            log.info("Streaming completed. total={}", writer.rows());
+        } catch (RuntimeException e) {
+            log.error("Error streaming users. written={}", writer.rows(), e);
+            throw e;
         }
     }
 }
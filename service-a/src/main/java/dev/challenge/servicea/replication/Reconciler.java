@@ -0,0 +1,139 @@
+package dev.challenge.servicea.replication;
+
+import dev.challenge.common.dto.BucketEntryDTO;
+import dev.challenge.common.dto.MerkleNodesRequestDTO;
+import dev.challenge.common.dto.MerkleRootDTO;
+import dev.challenge.common.replication.MerkleExchange;
+import dev.challenge.common.replication.MerkleTree;
+import dev.challenge.common.replication.NodeProperties;
+import dev.challenge.common.replication.ReconcileProperties;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.VersionClock;
+import dev.challenge.servicea.feign.MerkleBClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically compares pedido/usuario with Service B by walking both hash trees from the root,
+ * fetching only the children of nodes that differ, and repairs the diverging buckets through the
+ * outbox. Service A is the source of truth: rows missing or older on B are pushed, rows only B has
+ * are reported and, when enabled, deleted there once they are older than the grace period. Only rows
+ * whose version was stamped by this node are deleted; a row another node wrote may still be on its
+ * way here through that node's outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "replication.reconcile", name = "enabled", havingValue = "true")
+public class Reconciler {
+
+    private final MerkleExchange merkle;
+    private final MerkleBClient remote;
+    private final ReconciliationRepair repair;
+    private final ReconcileProperties properties;
+    private final NodeProperties node;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${replication.reconcile.interval-ms:300000}",
+            initialDelayString = "${replication.reconcile.interval-ms:300000}")
+    public void reconcile() {
+        for (ReplicationAggregate aggregate : ReplicationAggregate.values()) {
+            try {
+                reconcile(aggregate);
+            } catch (Exception e) {
+                log.warn("Reconciliation with Service B failed. aggregate={}, err={}", aggregate, e.getMessage());
+            }
+        }
+    }
+
+    private void reconcile(ReplicationAggregate aggregate) {
+        MerkleTree local = merkle.build(aggregate);
+        MerkleRootDTO remoteRoot = remote.root(aggregate);
+        if (remoteRoot.depth() != MerkleTree.DEPTH) {
+            log.warn("Merkle depth mismatch, reconciliation skipped. aggregate={}, local={}, remote={}",
+                    aggregate, MerkleTree.DEPTH, remoteRoot.depth());
+            return;
+        }
+        if (local.root().equals(remoteRoot.root())) {
+            log.debug("Replicas in sync. aggregate={}", aggregate);
+            return;
+        }
+
+        List<Integer> diverged = List.of(0);
+        for (int level = 1; level <= MerkleTree.DEPTH && !diverged.isEmpty(); level++) {
+            List<Integer> children = new ArrayList<>(diverged.size() * 2);
+            for (int index : diverged) {
+                children.add(2 * index);
+                children.add(2 * index + 1);
+            }
+            List<String> theirs = remote.nodes(aggregate, remoteRoot.snapshotId(), new MerkleNodesRequestDTO(level, children));
+            List<Integer> next = new ArrayList<>();
+            for (int i = 0; i < children.size(); i++) {
+                if (!local.node(level, children.get(i)).equals(theirs.get(i))) next.add(children.get(i));
+            }
+            diverged = next;
+        }
+
+        log.info("Replicas diverged. aggregate={}, buckets={}", aggregate, diverged.size());
+        meterRegistry.counter("replication.reconcile.buckets", "aggregate", aggregate.name()).increment(diverged.size());
+        for (int bucket : diverged) {
+            repairBucket(aggregate, bucket);
+        }
+    }
+
+    private void repairBucket(ReplicationAggregate aggregate, int bucket) {
+        Map<String, BucketEntryDTO> theirs = remote.bucket(aggregate, bucket).stream()
+                .collect(Collectors.toMap(BucketEntryDTO::externalId, Function.identity()));
+
+        ReconciliationRepair.Plan plan = new ReconciliationRepair.Plan(
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (BucketEntryDTO mine : merkle.bucket(aggregate, bucket)) {
+            BucketEntryDTO other = theirs.remove(mine.externalId());
+            if (other == null) {
+                plan.creates().add(mine.externalId());
+            } else if (other.digest().equals(mine.digest())) {
+                continue;
+            } else if (other.version() < mine.version()) {
+                plan.updates().add(mine.externalId());
+            } else if (other.version() == mine.version()) {
+                plan.bumps().add(mine.externalId());
+            } else {
+                log.debug("Service B holds a newer version, left to its outbox. aggregate={}, externalId={}",
+                        aggregate, mine.externalId());
+            }
+        }
+
+        long graceCutoff = System.currentTimeMillis() - properties.orphanGraceMs();
+        for (BucketEntryDTO orphan : theirs.values()) {
+            if (properties.deleteOrphans() && VersionClock.nodeOf(orphan.version()) == node.id()
+                    && VersionClock.millisOf(orphan.version()) < graceCutoff) {
+                plan.deletes().add(orphan.externalId());
+            } else {
+                log.warn("Row only present on Service B. aggregate={}, externalId={}, version={}",
+                        aggregate, orphan.externalId(), orphan.version());
+            }
+        }
+
+        if (plan.isEmpty()) return;
+        repair.apply(aggregate, plan);
+        count(aggregate, "create", plan.creates().size());
+        count(aggregate, "update", plan.updates().size() + plan.bumps().size());
+        count(aggregate, "delete", plan.deletes().size());
+    }
+
+    private void count(ReplicationAggregate aggregate, String action, int amount) {
+        if (amount == 0) return;
+        meterRegistry.counter("replication.reconcile.repairs", "aggregate", aggregate.name(), "action", action)
+                .increment(amount);
+    }
+}
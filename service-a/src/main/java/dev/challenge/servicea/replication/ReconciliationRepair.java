@@ -0,0 +1,110 @@
+package dev.challenge.servicea.replication;
+
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
+import dev.challenge.servicea.adapters.OrderAdapter;
+import dev.challenge.servicea.adapters.UserAdapter;
+import dev.challenge.servicea.cache.ReferenceCache;
+import dev.challenge.servicea.domain.Delivery;
+import dev.challenge.servicea.domain.Order;
+import dev.challenge.servicea.domain.User;
+import dev.challenge.servicea.repo.DeliveryRepository;
+import dev.challenge.servicea.repo.OrderRepository;
+import dev.challenge.servicea.repo.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconciliationRepair {
+
+    public record Plan(List<String> creates, List<String> updates, List<String> bumps, List<String> deletes) {
+
+        public boolean isEmpty() {
+            return creates.isEmpty() && updates.isEmpty() && bumps.isEmpty() && deletes.isEmpty();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final ReferenceCache referenceCache;
+    private final ReplicationOutbox outbox;
+    private final VersionClock versionClock;
+
+    @Transactional
+    public void apply(ReplicationAggregate aggregate, Plan plan) {
+        List<String> ids = new ArrayList<>(plan.creates());
+        ids.addAll(plan.updates());
+        ids.addAll(plan.bumps());
+
+        Map<String, Object> payloads = switch (aggregate) {
+            case USER -> userPayloads(ids, Set.copyOf(plan.bumps()));
+            case ORDER -> orderPayloads(ids, Set.copyOf(plan.bumps()));
+        };
+
+        enqueue(aggregate, plan.creates(), ReplicationOperation.CREATE, payloads);
+        enqueue(aggregate, plan.updates(), ReplicationOperation.UPDATE, payloads);
+        enqueue(aggregate, plan.bumps(), ReplicationOperation.UPDATE, payloads);
+        plan.deletes().forEach(id -> outbox.enqueue(aggregate, id, ReplicationOperation.DELETE, null));
+
+        log.info("Reconciliation repairs enqueued. aggregate={}, creates={}, updates={}, bumps={}, deletes={}",
+                aggregate, plan.creates().size(), plan.updates().size(), plan.bumps().size(), plan.deletes().size());
+    }
+
+    private void enqueue(ReplicationAggregate aggregate, List<String> ids, ReplicationOperation operation,
+                         Map<String, Object> payloads) {
+        for (String id : ids) {
+            Object payload = payloads.get(id);
+            if (payload == null) {
+                log.debug("Row vanished before repair, skipped. aggregate={}, externalId={}", aggregate, id);
+                continue;
+            }
+            outbox.enqueue(aggregate, id, operation, payload);
+        }
+    }
+
+    private Map<String, Object> userPayloads(Collection<String> ids, Set<String> bumps) {
+        Map<String, Object> payloads = new HashMap<>();
+        for (User user : userRepository.findByExternalIdIn(ids)) {
+            if (bumps.contains(user.getExternalId())) {
+                user.setVersion(versionClock.next());
+                referenceCache.evictUser(user.getExternalId());
+            }
+            payloads.put(user.getExternalId(), UserAdapter.toUserDTO(user));
+        }
+        return payloads;
+    }
+
+    private Map<String, Object> orderPayloads(Collection<String> ids, Set<String> bumps) {
+        List<Order> orders = orderRepository.findByExternalIdIn(ids);
+        Map<Long, User> users = userRepository.findAllById(orders.stream().map(Order::getIdUser).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Delivery> deliveries = deliveryRepository.findAllById(orders.stream().map(Order::getIdDelivery).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Delivery::getId, Function.identity()));
+
+        Map<String, Object> payloads = new HashMap<>();
+        for (Order order : orders) {
+            if (bumps.contains(order.getExternalId())) order.setVersion(versionClock.next());
+            payloads.put(order.getExternalId(),
+                    OrderAdapter.toReplica(order, deliveries.get(order.getIdDelivery()), users.get(order.getIdUser())));
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.challenge.servicea.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
+import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.replication.OutboxEvent;
+import dev.challenge.common.replication.OutboxTransport;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import dev.challenge.servicea.feign.OrderBClient;
+import dev.challenge.servicea.feign.UserBClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ReplicationSender implements OutboxTransport {
+
+    private final OrderBClient orderClient;
+    private final UserBClient userClient;
+    private final ReplicationStream stream;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<BatchItemResultDTO> send(Peer peer, List<OutboxEvent> events) throws IOException {
+        URI target = URI.create(peer.url());
+        int origin = events.get(0).getOriginNode();
+        String seen = events.get(0).getSeen();
+        return switch (events.get(0).getAggregateType()) {
+            case ORDER -> {
+                List<OrderBatchItemDTO> items = toOrderItems(events);
+                yield stream.sendOrders(peer, origin, seen, items)
+                        .orElseGet(() -> orderClient.applyOrderBatch(target, origin, seen, items));
+            }
+            case USER -> {
+                List<UserBatchItemDTO> items = toUserItems(events);
+                yield stream.sendUsers(peer, origin, seen, items)
+                        .orElseGet(() -> userClient.applyUserBatch(target, origin, seen, items));
+            }
+        };
+    }
+
+    private List<OrderBatchItemDTO> toOrderItems(List<OutboxEvent> events) throws IOException {
+        List<OrderBatchItemDTO> items = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            OrderReplicaDTO data = event.getPayload() == null
+                    ? null
+                    : objectMapper.readValue(event.getPayload(), OrderReplicaDTO.class);
+            items.add(new OrderBatchItemDTO(event.getOperation(), event.getAggregateId(), data));
+        }
+        return items;
+    }
+
+    private List<UserBatchItemDTO> toUserItems(List<OutboxEvent> events) throws IOException {
+        List<UserBatchItemDTO> items = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            UserDTO data = event.getPayload() == null
+                    ? null
+                    : objectMapper.readValue(event.getPayload(), UserDTO.class);
+            items.add(new UserBatchItemDTO(event.getOperation(), event.getAggregateId(), data));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,313 @@
+package dev.challenge.servicea.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
+import dev.challenge.common.dto.ReplicationAckDTO;
+import dev.challenge.common.dto.ReplicationFrameDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
+import dev.challenge.common.feign.ReplicationGuards;
+import dev.challenge.common.replication.Topology;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import dev.challenge.common.replication.StreamProperties;
+import dev.challenge.common.replication.WireProperties;
+import dev.challenge.common.security.AuthProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Persistent replication channels, one WebSocket connection per peer. All lanes targeting a peer share
+ * its connection; each batch goes out as a frame and waits for the cumulative ack covering its sequence
+ * number. An empty result means the frame never left and the caller should fall back to REST. A frame
+ * that was sent but not acknowledged may still be applied by the peer, so it is never resent over REST:
+ * its items come back as failures and the relay reschedules them behind the usual backoff.
+ *
+ * <p>Every frame takes a permit from the same per-target {@link ReplicationGuards} as the REST calls, so
+ * the adaptive limit and the circuit breaker see stream traffic too: an ack is a success, an ack timeout
+ * or a session lost before the ack is a failure. A rejected permit surfaces as a deferral to the relay.
+ */
+@Slf4j
+@Component
+public class ReplicationStream {
+
+    private record Outstanding(String sessionId,
+                               CompletableFuture<List<BatchItemResultDTO>> result,
+                               List<BatchItemResultDTO> delivered) {}
+
+    private final StreamProperties properties;
+    private final boolean binary;
+    private final ObjectMapper mapper;
+    private final String token;
+    private final StandardWebSocketClient client;
+    private final MeterRegistry meterRegistry;
+    private final ReplicationGuards guards;
+    private final Map<Integer, Channel> channels = new LinkedHashMap<>();
+
+    public ReplicationStream(StreamProperties properties, WireProperties wire, ObjectMapper objectMapper,
+                             MappingJackson2SmileHttpMessageConverter smileConverter, AuthProperties auth,
+                             Topology topology, MeterRegistry meterRegistry, ReplicationGuards guards) {
+        this.properties = properties;
+        this.binary = wire.format() == WireProperties.Format.SMILE;
+        this.mapper = binary ? smileConverter.getObjectMapper() : objectMapper;
+        this.token = auth.staticToken();
+        this.meterRegistry = meterRegistry;
+        this.guards = guards;
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(properties.maxMessageBytes());
+        container.setDefaultMaxBinaryMessageBufferSize(properties.maxMessageBytes());
+        this.client = new StandardWebSocketClient(container);
+        for (Peer peer : topology.peers()) {
+            channels.put(peer.id(), new Channel(peer.id(), ReplicationGuards.target(peer.url()), streamUri(peer.url())));
+        }
+    }
+
+    public Optional<List<BatchItemResultDTO>> sendOrders(Peer peer, int origin, String seen,
+                                                         List<OrderBatchItemDTO> items) {
+        return send(peer, seq -> new ReplicationFrameDTO(seq, origin, seen, items, null), items.stream()
+                .map(i -> BatchItemResultDTO.of(i.externalId(), i.operation(), 200, "OK"))
+                .toList());
+    }
+
+    public Optional<List<BatchItemResultDTO>> sendUsers(Peer peer, int origin, String seen,
+                                                        List<UserBatchItemDTO> items) {
+        return send(peer, seq -> new ReplicationFrameDTO(seq, origin, seen, null, items), items.stream()
+                .map(i -> BatchItemResultDTO.of(i.externalId(), i.operation(), 200, "OK"))
+                .toList());
+    }
+
+    private Optional<List<BatchItemResultDTO>> send(Peer peer, LongFunction<ReplicationFrameDTO> frame,
+                                                    List<BatchItemResultDTO> delivered) {
+        if (!properties.enabled()) return Optional.empty();
+        Channel channel = channels.get(peer.id());
+        if (channel == null) return fallback(peer.id(), "unknown_peer");
+        return channel.send(frame, delivered);
+    }
+
+    @PreDestroy
+    void close() {
+        channels.values().forEach(Channel::close);
+    }
+
+    private URI streamUri(String peerUrl) {
+        UriComponentsBuilder base = UriComponentsBuilder.fromHttpUrl(peerUrl);
+        return base.scheme("https".equalsIgnoreCase(base.build().getScheme()) ? "wss" : "ws")
+                .path(properties.path())
+                .build()
+                .toUri();
+    }
+
+    private WebSocketMessage<?> encode(ReplicationFrameDTO frame) throws IOException {
+        return binary
+                ? new BinaryMessage(mapper.writeValueAsBytes(frame))
+                : new TextMessage(mapper.writeValueAsString(frame));
+    }
+
+    private Optional<List<BatchItemResultDTO>> fallback(int target, String reason) {
+        meterRegistry.counter("replication.stream.frames", "target", String.valueOf(target),
+                "result", "fallback_" + reason).increment();
+        return Optional.empty();
+    }
+
+    private Optional<List<BatchItemResultDTO>> unconfirmed(int target, String reason,
+                                                           List<BatchItemResultDTO> delivered) {
+        meterRegistry.counter("replication.stream.frames", "target", String.valueOf(target),
+                "result", "unconfirmed_" + reason).increment();
+        return Optional.of(delivered.stream()
+                .map(r -> BatchItemResultDTO.of(r.externalId(), r.operation(), 504,
+                        "Stream frame unconfirmed: " + reason))
+                .toList());
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Error closing replication stream. session={}, err={}", session.getId(), e.getMessage());
+        }
+    }
+
+    private final class Channel extends AbstractWebSocketHandler {
+
+        private final int target;
+        private final String guardTarget;
+        private final URI uri;
+        private final AtomicLong sequence = new AtomicLong();
+        private final NavigableMap<Long, Outstanding> pending = new ConcurrentSkipListMap<>();
+        private final Object connectLock = new Object();
+        private final Object sendLock = new Object();
+        private final AtomicReference<WebSocketSession> session = new AtomicReference<>();
+        private volatile long retryAt;
+
+        private Channel(int target, String guardTarget, URI uri) {
+            this.target = target;
+            this.guardTarget = guardTarget;
+            this.uri = uri;
+        }
+
+        Optional<List<BatchItemResultDTO>> send(LongFunction<ReplicationFrameDTO> frame,
+                                                List<BatchItemResultDTO> delivered) {
+            WebSocketSession current = session();
+            if (current == null) return fallback(target, "disconnected");
+            ReplicationGuards.Permit permit = guards.acquire(guardTarget);
+
+            // Sequence numbers are handed out in send order so the peer can ack cumulatively.
+            long seq;
+            CompletableFuture<List<BatchItemResultDTO>> result = new CompletableFuture<>();
+            synchronized (sendLock) {
+                seq = sequence.incrementAndGet();
+                WebSocketMessage<?> message;
+                try {
+                    message = encode(frame.apply(seq));
+                } catch (IOException e) {
+                    permit.cancel();
+                    log.warn("Replication frame encoding failed. target={}, seq={}, err={}", target, seq, e.getMessage());
+                    return fallback(target, "encode");
+                }
+                pending.put(seq, new Outstanding(current.getId(), result, delivered));
+                try {
+                    current.sendMessage(message);
+                } catch (IOException | RuntimeException e) {
+                    pending.remove(seq);
+                    permit.release(false);
+                    log.warn("Replication stream send failed. target={}, seq={}, err={}", target, seq, e.getMessage());
+                    closeQuietly(current, CloseStatus.SESSION_NOT_RELIABLE);
+                    return unconfirmed(target, "error", delivered);
+                }
+            }
+
+            try {
+                List<BatchItemResultDTO> results = result.get(properties.ackTimeoutMs(), TimeUnit.MILLISECONDS);
+                permit.release(true);
+                meterRegistry.counter("replication.stream.frames", "target", String.valueOf(target),
+                        "result", "acked").increment();
+                return Optional.of(results);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.remove(seq);
+                permit.cancel();
+                return unconfirmed(target, "interrupted", delivered);
+            } catch (TimeoutException e) {
+                pending.remove(seq);
+                permit.release(false);
+                log.warn("Replication stream ack timed out, reconnecting. target={}, seq={}, timeoutMs={}",
+                        target, seq, properties.ackTimeoutMs());
+                closeQuietly(current, CloseStatus.SESSION_NOT_RELIABLE);
+                return unconfirmed(target, "timeout", delivered);
+            } catch (ExecutionException e) {
+                permit.release(false);
+                log.warn("Replication stream lost before ack. target={}, seq={}, err={}",
+                        target, seq, e.getCause().getMessage());
+                return unconfirmed(target, "closed", delivered);
+            }
+        }
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+            acknowledge(session, mapper.readValue(message.getPayload(), ReplicationAckDTO.class));
+        }
+
+        @Override
+        protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+            ByteBuffer payload = message.getPayload();
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            acknowledge(session, mapper.readValue(bytes, ReplicationAckDTO.class));
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession closed, CloseStatus status) {
+            IOException cause = new IOException("Stream closed: " + status);
+            pending.values().removeIf(o -> {
+                if (!o.sessionId().equals(closed.getId())) return false;
+                o.result().completeExceptionally(cause);
+                return true;
+            });
+            WebSocketSession current = session.get();
+            if (current == null || !current.getId().equals(closed.getId()) || !session.compareAndSet(current, null)) {
+                log.debug("Stale replication stream closed. target={}, session={}, status={}", target, closed.getId(), status);
+                return;
+            }
+            retryAt = System.currentTimeMillis() + properties.reconnectDelayMs();
+            log.warn("Replication stream closed. target={}, session={}, status={}", target, closed.getId(), status);
+        }
+
+        void close() {
+            WebSocketSession current = session.get();
+            if (current != null) {
+                closeQuietly(current, CloseStatus.GOING_AWAY);
+            }
+        }
+
+        private void acknowledge(WebSocketSession acking, ReplicationAckDTO ack) {
+            pending.headMap(ack.upTo(), true).entrySet().removeIf(entry -> {
+                Outstanding outstanding = entry.getValue();
+                if (!outstanding.sessionId().equals(acking.getId())) return false;
+                List<BatchItemResultDTO> failed = ack.failures() == null ? null : ack.failures().get(entry.getKey());
+                outstanding.result().complete(failed != null ? failed : outstanding.delivered());
+                return true;
+            });
+        }
+
+        private WebSocketSession session() {
+            WebSocketSession current = session.get();
+            if (current != null && current.isOpen()) return current;
+            synchronized (connectLock) {
+                current = session.get();
+                if (current != null && current.isOpen()) return current;
+                if (System.currentTimeMillis() < retryAt) return null;
+
+                WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+                headers.setBearerAuth(token);
+                try {
+                    WebSocketSession opened = client.execute(this, headers, uri)
+                            .get(properties.connectTimeoutMs(), TimeUnit.MILLISECONDS);
+                    current = new ConcurrentWebSocketSessionDecorator(opened, (int) properties.ackTimeoutMs(),
+                            properties.maxMessageBytes());
+                    session.set(current);
+                    log.info("Replication stream connected. target={}, uri={}, binary={}", target, uri, binary);
+                    return current;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                } catch (ExecutionException | TimeoutException e) {
+                    retryAt = System.currentTimeMillis() + properties.reconnectDelayMs();
+                    log.warn("Replication stream unavailable, using REST. target={}, uri={}, retryInMs={}, err={}",
+                            target, uri, properties.reconnectDelayMs(), e.getMessage());
+                    return null;
+                }
+            }
+        }
+    }
+}
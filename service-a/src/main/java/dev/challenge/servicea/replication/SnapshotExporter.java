@@ -0,0 +1,116 @@
+package dev.challenge.servicea.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.SnapshotHeaderDTO;
+import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.replication.OutboxEventRepository;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.SnapshotProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Streams usuario/pedido as NDJSON from a single repeatable-read transaction, paging by primary key.
+ * Once the replica has loaded it, every event parked for that replica is re-armed: outbox ids are not
+ * commit-ordered and delivered rows are deleted, so no id watermark can tell which parked events the
+ * snapshot already covers, and replaying them all is safe because replicas only apply newer versions.
+ */
+@Slf4j
+@Component
+public class SnapshotExporter {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate snapshotTx;
+    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxRepository;
+    private final int pageSize;
+
+    public SnapshotExporter(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                            OutboxEventRepository outboxRepository, SnapshotProperties snapshotProperties) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.outboxRepository = outboxRepository;
+        this.pageSize = snapshotProperties.pageSize();
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setReadOnly(true);
+    }
+
+    public void export(ReplicationAggregate aggregate, OutputStream out) {
+        snapshotTx.executeWithoutResult(status -> {
+            Long watermark = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM replication_outbox", Long.class);
+            write(out, new SnapshotHeaderDTO(aggregate, watermark));
+
+            long after = 0;
+            long rows = 0;
+            List<?> page;
+            do {
+                page = aggregate == ReplicationAggregate.USER ? userPage(after) : orderPage(after);
+                for (Object row : page) {
+                    write(out, row);
+                }
+                if (!page.isEmpty()) {
+                    Object last = page.get(page.size() - 1);
+                    after = last instanceof UserDTO user ? user.id() : ((OrderReplicaDTO) last).id();
+                    rows += page.size();
+                }
+                flush(out);
+            } while (page.size() == pageSize);
+
+            log.info("Snapshot exported. aggregate={}, rows={}, watermark={}", aggregate, rows, watermark);
+        });
+    }
+
+    public int resume(int target) {
+        int rearmed = outboxRepository.rearmParked(target, Instant.now());
+        log.info("Replication tail resumed after snapshot. target={}, rearmed={}", target, rearmed);
+        return rearmed;
+    }
+
+    private List<UserDTO> userPage(long after) {
+        return jdbc.query("SELECT id, external_id, nome, email, version FROM usuario WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, i) -> new UserDTO(rs.getLong("id"), rs.getString("nome"), rs.getString("email"),
+                        rs.getString("external_id"), rs.getLong("version")),
+                after, pageSize);
+    }
+
+    private List<OrderReplicaDTO> orderPage(long after) {
+        return jdbc.query("SELECT p.id, p.descricao, p.valor, p.external_id, e.nome, e.telefone, p.external_user_id, p.version "
+                        + "FROM pedido p JOIN entregador e ON e.id = p.id_entregador "
+                        + "WHERE p.id > ? ORDER BY p.id LIMIT ?",
+                (rs, i) -> new OrderReplicaDTO(rs.getLong("id"), rs.getString("descricao"), rs.getBigDecimal("valor"),
+                        rs.getString("external_id"), rs.getString("nome"), rs.getString("telefone"),
+                        rs.getString("external_user_id"), rs.getLong("version")),
+                after, pageSize);
+    }
+
+    private void write(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
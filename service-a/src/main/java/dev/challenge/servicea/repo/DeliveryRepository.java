@@ -1,6 +1,21 @@
 package dev.challenge.servicea.repo;
 
 import dev.challenge.servicea.domain.Delivery;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface DeliveryRepository extends JpaRepository<Delivery, Long> {}
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+    List<Delivery> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Delivery> streamAllByOrderByIdAsc();
+}
@@ -1,12 +1,43 @@
 package dev.challenge.servicea.repo;
 
 import dev.challenge.servicea.domain.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Order> streamAllByOrderByIdAsc();
+
     Optional<Order> findByExternalId(String id);
     boolean existsByExternalId(String id);
     void deleteByExternalId(String id);
+    List<Order> findByExternalIdIn(Collection<String> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Order o set o.description = :description, o.value = :value, o.idUser = :idUser,
+                   o.idDelivery = :idDelivery, o.externalUserId = :externalUserId, o.version = :version
+             where o.externalId = :externalId and o.version < :version
+            """)
+    int applyReplicatedUpdate(@Param("externalId") String externalId, @Param("description") String description,
+                              @Param("value") BigDecimal value, @Param("idUser") Long idUser,
+                              @Param("idDelivery") Long idDelivery, @Param("externalUserId") String externalUserId,
+                              @Param("version") long version);
 }
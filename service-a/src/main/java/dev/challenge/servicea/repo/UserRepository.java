@@ -1,12 +1,39 @@
 package dev.challenge.servicea.repo;
 
 import dev.challenge.servicea.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
     Optional<User> findByExternalId(String externalId);
     Boolean existsByExternalId(String externalId);
     void deleteByExternalId(String externalId);
+    List<User> findByExternalIdIn(Collection<String> externalIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update User u set u.name = :name, u.email = :email, u.version = :version
+             where u.externalId = :externalId and u.version < :version
+            """)
+    int applyReplicatedUpdate(@Param("externalId") String externalId, @Param("name") String name,
+                              @Param("email") String email, @Param("version") long version);
 }
@@ -1,12 +1,14 @@
 package dev.challenge.servicea.services;
 
 import dev.challenge.common.dto.DeliveryDTO;
+import dev.challenge.common.dto.PageDTO;
 
-import java.util.List;
+import java.io.OutputStream;
 
 public interface DeliveryService {
     DeliveryDTO createDelivery(DeliveryDTO dto);
     DeliveryDTO updateDelivery(Long id, DeliveryDTO dto);
     void deleteDelivery(Long id);
-    List<DeliveryDTO> listDeliveries();
+    PageDTO<DeliveryDTO> listDeliveries(String cursor, Integer limit);
+    void streamDeliveries(OutputStream out);
 }
@@ -1,12 +1,16 @@
 package dev.challenge.servicea.services;
 import dev.challenge.common.dto.OrderDTO;
+import dev.challenge.common.dto.PageDTO;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface OrderService {
     OrderDTO createOrder(OrderDTO dto);
+    List<OrderDTO> createOrders(List<OrderDTO> dtos);
     OrderDTO updateOrder(String id, OrderDTO dto);
     void deleteOrder(String id);
-    List<OrderDTO> listOrders();
+    PageDTO<OrderDTO> listOrders(String cursor, Integer limit);
+    void streamOrders(OutputStream out);
 }
 
@@ -1,8 +1,9 @@
 package dev.challenge.servicea.services;
 
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.dto.UserDTO;
 
-import java.util.List;
+import java.io.OutputStream;
 public interface UserService {
 
     UserDTO createUser(UserDTO dto);
@@ -11,5 +12,7 @@ public interface UserService {
 
     void deleteUser(String id);
 
-    List<UserDTO> listUsers();
+    PageDTO<UserDTO> listUsers(String cursor, Integer limit);
+
+    void streamUsers(OutputStream out);
 }
@@ -0,0 +1,22 @@
+-- external_id passa a uuid nativo (16 bytes em vez de até 50 de texto). Valores que não são UUID
+-- são convertidos de forma determinística via md5, então todos os nós chegam ao mesmo id.
+-- Os índices idx_*_external_id duplicavam as constraints UNIQUE e são removidos.
+DROP INDEX IF EXISTS idx_usuario_merkle_bucket;
+DROP INDEX IF EXISTS idx_pedido_merkle_bucket;
+DROP INDEX IF EXISTS idx_usuario_external_id;
+DROP INDEX IF EXISTS idx_pedido_external_id;
+
+CREATE OR REPLACE FUNCTION pg_temp.to_external_uuid(value TEXT) RETURNS UUID AS $$
+    SELECT CASE
+               WHEN value ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$' THEN value::uuid
+               ELSE md5(value)::uuid
+           END
+$$ LANGUAGE SQL IMMUTABLE;
+
+ALTER TABLE usuario ALTER COLUMN external_id TYPE UUID USING pg_temp.to_external_uuid(external_id);
+ALTER TABLE pedido
+    ALTER COLUMN external_id TYPE UUID USING pg_temp.to_external_uuid(external_id),
+    ALTER COLUMN external_user_id TYPE UUID USING pg_temp.to_external_uuid(external_user_id);
+
+CREATE INDEX IF NOT EXISTS idx_usuario_merkle_bucket ON usuario((hashtext(external_id::text) & 1023));
+CREATE INDEX IF NOT EXISTS idx_pedido_merkle_bucket ON pedido((hashtext(external_id::text) & 1023));
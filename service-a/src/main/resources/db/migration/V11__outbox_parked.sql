@@ -0,0 +1,11 @@
+ALTER TABLE replication_outbox ADD COLUMN IF NOT EXISTS parked_at TIMESTAMPTZ;
+
+-- Eventos que já esgotaram as tentativas (limite padrão de 20) passam a ficar estacionados explicitamente
+UPDATE replication_outbox SET parked_at = now(), dispatched_at = NULL WHERE attempts >= 20;
+
+DROP INDEX IF EXISTS idx_replication_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_replication_outbox_pending ON replication_outbox(target_node, id)
+    WHERE dispatched_at IS NULL AND parked_at IS NULL;
+
+-- Busca de eventos anteriores da mesma entidade que ainda bloqueiam a fila
+CREATE INDEX IF NOT EXISTS idx_replication_outbox_key ON replication_outbox(target_node, aggregate_type, aggregate_id, id);
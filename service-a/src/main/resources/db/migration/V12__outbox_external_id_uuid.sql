@@ -0,0 +1,27 @@
+-- Eventos pendentes no outbox ainda carregam os ids antigos (texto livre ou UUID em maiúsculas).
+-- Aplica a mesma conversão determinística da V10 e grava a forma canônica (minúscula), que é a
+-- chave usada pela ordenação do relay e pelos mapas/caches dos serviços.
+CREATE OR REPLACE FUNCTION pg_temp.to_external_uuid(value TEXT) RETURNS UUID AS $$
+    SELECT CASE
+               WHEN value ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$' THEN value::uuid
+               ELSE md5(value)::uuid
+           END
+$$ LANGUAGE SQL IMMUTABLE;
+
+UPDATE replication_outbox
+   SET aggregate_id = pg_temp.to_external_uuid(aggregate_id)::text
+ WHERE aggregate_id IS DISTINCT FROM pg_temp.to_external_uuid(aggregate_id)::text;
+
+UPDATE replication_outbox
+   SET payload = jsonb_set(payload::jsonb, '{externalId}',
+                           to_jsonb(pg_temp.to_external_uuid(payload::jsonb ->> 'externalId')::text))::text
+ WHERE payload IS NOT NULL
+   AND payload::jsonb ->> 'externalId' IS NOT NULL
+   AND payload::jsonb ->> 'externalId' IS DISTINCT FROM pg_temp.to_external_uuid(payload::jsonb ->> 'externalId')::text;
+
+UPDATE replication_outbox
+   SET payload = jsonb_set(payload::jsonb, '{externalUserId}',
+                           to_jsonb(pg_temp.to_external_uuid(payload::jsonb ->> 'externalUserId')::text))::text
+ WHERE payload IS NOT NULL
+   AND payload::jsonb ->> 'externalUserId' IS NOT NULL
+   AND payload::jsonb ->> 'externalUserId' IS DISTINCT FROM pg_temp.to_external_uuid(payload::jsonb ->> 'externalUserId')::text;
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS replication_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id VARCHAR(50) NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    payload TEXT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    last_error VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_replication_outbox_aggregate ON replication_outbox(aggregate_type, aggregate_id);
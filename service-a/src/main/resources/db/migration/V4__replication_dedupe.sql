@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS replication_dedupe (
+    operation_key VARCHAR(300) PRIMARY KEY,
+    status INTEGER NOT NULL,
+    content_type VARCHAR(100),
+    body BYTEA,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_replication_dedupe_created_at ON replication_dedupe(created_at);
@@ -0,0 +1,2 @@
+ALTER TABLE usuario ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
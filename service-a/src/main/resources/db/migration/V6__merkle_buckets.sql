@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_usuario_merkle_bucket ON usuario((hashtext(external_id) & 1023));
+CREATE INDEX IF NOT EXISTS idx_pedido_merkle_bucket ON pedido((hashtext(external_id) & 1023));
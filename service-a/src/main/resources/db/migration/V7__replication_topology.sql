@@ -0,0 +1,9 @@
+ALTER TABLE replication_outbox ADD COLUMN IF NOT EXISTS target_node INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE replication_outbox ADD COLUMN IF NOT EXISTS origin_node INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE replication_outbox ADD COLUMN IF NOT EXISTS seen VARCHAR(255);
+
+-- Eventos anteriores à topologia tinham um único destino
+UPDATE replication_outbox SET target_node = 2 WHERE target_node = 0;
+
+DROP INDEX IF EXISTS idx_replication_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_replication_outbox_pending ON replication_outbox(target_node, id) WHERE dispatched_at IS NULL;
@@ -0,0 +1,3 @@
+-- Ids de pedido vêm do otimizador pooled do Hibernate (allocationSize = 50), que exige o mesmo passo na sequence;
+-- com os ids reservados em blocos, os inserts podem ir em lote via JDBC
+ALTER SEQUENCE pedido_id_seq INCREMENT BY 50;
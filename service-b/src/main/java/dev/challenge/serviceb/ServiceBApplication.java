@@ -1,13 +1,21 @@
 package dev.challenge.serviceb;
 
+import dev.challenge.common.replication.OutboxEvent;
+import dev.challenge.common.replication.OutboxEventRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "dev.challenge")
+@EntityScan(basePackageClasses = {ServiceBApplication.class, OutboxEvent.class})
+@EnableJpaRepositories(basePackageClasses = {ServiceBApplication.class, OutboxEventRepository.class})
 @EnableFeignClients
 @EnableRetry
+@EnableScheduling
 public class ServiceBApplication {
     public static void main(String[] args) {
         SpringApplication.run(ServiceBApplication.class, args);
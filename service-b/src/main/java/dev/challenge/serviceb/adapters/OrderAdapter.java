@@ -1,11 +1,12 @@
 package dev.challenge.serviceb.adapters;
 
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.id.UuidV7;
 import dev.challenge.serviceb.domain.Order;
 import dev.challenge.serviceb.domain.User;
 
 import java.util.Objects;
-import java.util.UUID;
 
 public final class OrderAdapter {
 
@@ -19,7 +20,8 @@ public final class OrderAdapter {
                 orderEntity.getExternalId(),
                 orderEntity.getDeliveryName(),
                 orderEntity.getPhoneDelivery(),
-                externalUserId
+                externalUserId,
+                orderEntity.getVersion()
         );
     }
 
@@ -27,14 +29,15 @@ public final class OrderAdapter {
         Objects.requireNonNull(orderReplicaDTO, "OrderReplicaDTO must not be null");
         return Order.builder()
                 .externalId(orderReplicaDTO.externalId() != null
-                        ? orderReplicaDTO.externalId()
-                        : UUID.randomUUID().toString())
+                        ? ExternalIds.canonical(orderReplicaDTO.externalId())
+                        : UuidV7.nextString())
                 .description(orderReplicaDTO.description())
                 .value(orderReplicaDTO.value())
                 .idUser(userEntity.getId())
                 .deliveryName(orderReplicaDTO.deliveryName())
                 .phoneDelivery(orderReplicaDTO.deliveryPhone())
                 .externalUserId(userEntity.getExternalId())
+                .version(orderReplicaDTO.version() != null ? orderReplicaDTO.version() : 0L)
                 .build();
     }
 
@@ -1,10 +1,10 @@
 package dev.challenge.serviceb.adapters;
 
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.id.UuidV7;
 import dev.challenge.serviceb.domain.User;
 
-import java.util.UUID;
-
 public final class UserAdapter {
 
     private UserAdapter() {
@@ -16,6 +16,7 @@ public final class UserAdapter {
                 .name(userEntity.getName())
                 .email(userEntity.getEmail())
                 .externalId(userEntity.getExternalId())
+                .version(userEntity.getVersion())
                 .build();
     }
 
@@ -24,8 +25,9 @@ public final class UserAdapter {
                 .name(userDTO.name())
                 .email(userDTO.email())
                 .externalId(userDTO.externalId() != null
-                        ? userDTO.externalId()
-                        : UUID.randomUUID().toString())
+                        ? ExternalIds.canonical(userDTO.externalId())
+                        : UuidV7.nextString())
+                .version(userDTO.version() != null ? userDTO.version() : 0L)
                 .build();
     }
 
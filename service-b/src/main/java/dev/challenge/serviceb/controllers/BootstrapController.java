@@ -0,0 +1,34 @@
+package dev.challenge.serviceb.controllers;
+
+import dev.challenge.common.dto.SnapshotLoadDTO;
+import dev.challenge.serviceb.replication.SnapshotLoader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/replication/bootstrap")
+@Tag(name = "Bootstrap (Service B)", description = "Carga inicial da réplica a partir de um snapshot do Service A")
+public class BootstrapController {
+
+    private final SnapshotLoader loader;
+
+    @PostMapping
+    @Operation(summary = "Carregar snapshot", description = "Importa usuários e pedidos do Service A em lotes e retoma a replicação a partir do watermark")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Carga concluída"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "409", description = "Carga já em andamento"),
+            @ApiResponse(responseCode = "502", description = "Falha ao ler o snapshot do Service A"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<SnapshotLoadDTO> bootstrap() {
+        return ResponseEntity.ok(loader.bootstrap());
+    }
+}
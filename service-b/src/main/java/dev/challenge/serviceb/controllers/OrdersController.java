@@ -1,15 +1,23 @@
 package dev.challenge.serviceb.controllers;
 
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.serviceb.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,15 +30,33 @@ public class OrdersController {
     private final OrderService service;
 
     @GetMapping
-    @Operation(summary = "Listar pedidos (B)", description = "Lista pedidos replicados no Service B")
+    @Operation(summary = "Listar pedidos (B)", description = "Lista pedidos replicados no Service B, paginados por cursor (keyset)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "204", description = "Nenhum pedido replicado"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Proibido"),
             @ApiResponse(responseCode = "500", description = "Erro interno")
     })
-    public ResponseEntity<List<OrderReplicaDTO>> listOrders() {
-        return ResponseEntity.ok(service.listOrders());
+    public ResponseEntity<PageDTO<OrderReplicaDTO>> listOrders(
+            @Parameter(description = "Cursor opaco retornado em nextCursor da página anterior")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página (1 a 500, padrão 50)")
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Cursor.ok(service.listOrders(cursor, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar pedidos (B, NDJSON)", description = "Com Accept: application/x-ndjson, transmite todos os pedidos replicados (um JSON por linha) sem carregar a tabela em memória")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<StreamingResponseBody> streamOrders() {
+        return NdjsonWriter.response(service::streamOrders);
     }
 
     @PostMapping
@@ -74,4 +100,17 @@ public class OrdersController {
         service.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Aplicar lote de pedidos (B)", description = "Aplica um lote de operações (create/update/delete) replicadas do Service A em uma única transação")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote processado (resultado por item)"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<List<BatchItemResultDTO>> applyBatch(@RequestBody List<OrderBatchItemDTO> items) {
+        return ResponseEntity.ok(service.applyBatch(items));
+    }
 }
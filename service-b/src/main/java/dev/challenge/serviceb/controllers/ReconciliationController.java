@@ -0,0 +1,67 @@
+package dev.challenge.serviceb.controllers;
+
+import dev.challenge.common.dto.BucketEntryDTO;
+import dev.challenge.common.dto.MerkleNodesRequestDTO;
+import dev.challenge.common.dto.MerkleRootDTO;
+import dev.challenge.common.replication.MerkleExchange;
+import dev.challenge.common.replication.ReplicationAggregate;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/replication/merkle")
+@Tag(name = "Reconciliação (Service B)", description = "Árvores de hash usadas na reconciliação anti-entropia")
+public class ReconciliationController {
+
+    private final MerkleExchange merkle;
+
+    @GetMapping("/{aggregate}")
+    @Operation(summary = "Raiz da árvore", description = "Monta um snapshot da árvore de hash e retorna a raiz")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<MerkleRootDTO> root(@PathVariable("aggregate") ReplicationAggregate aggregate) {
+        return ResponseEntity.ok(merkle.snapshot(aggregate));
+    }
+
+    @PostMapping("/{aggregate}/{snapshotId}/nodes")
+    @Operation(summary = "Nós da árvore", description = "Retorna os hashes dos nós pedidos de um snapshot, na mesma ordem")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Nó inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "404", description = "Snapshot não encontrado ou expirado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<List<String>> nodes(@PathVariable("aggregate") ReplicationAggregate aggregate,
+                                              @PathVariable("snapshotId") String snapshotId,
+                                              @RequestBody MerkleNodesRequestDTO request) {
+        return ResponseEntity.ok(merkle.nodes(aggregate, snapshotId, request));
+    }
+
+    @GetMapping("/{aggregate}/buckets/{bucket}")
+    @Operation(summary = "Conteúdo do bucket", description = "Lista externalId, versão e digest das linhas de um bucket")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bucket inválido"),
+            @ApiResponse(responseCode = "401", description = "Não autenticado"),
+            @ApiResponse(responseCode = "403", description = "Proibido"),
+            @ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    public ResponseEntity<List<BucketEntryDTO>> bucket(@PathVariable("aggregate") ReplicationAggregate aggregate,
+                                                       @PathVariable("bucket") int bucket) {
+        return ResponseEntity.ok(merkle.bucket(aggregate, bucket));
+    }
+}
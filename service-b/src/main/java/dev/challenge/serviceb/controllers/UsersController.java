@@ -1,8 +1,14 @@
 package dev.challenge.serviceb.controllers;
 
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.serviceb.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,8 +16,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -58,13 +66,40 @@ public class UsersController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Lista usuários", description = "Retorna todos os usuários cadastrados.")
+    @Operation(summary = "Lista usuários", description = "Retorna os usuários cadastrados, paginados por cursor (keyset).")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "204", description = "Nenhum usuário cadastrado"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
             @ApiResponse(responseCode = "401", description = "Não autorizado")
     })
     @GetMapping
-    public ResponseEntity<List<UserDTO>> list() {
-        return ResponseEntity.ok(service.listUsers());
+    public ResponseEntity<PageDTO<UserDTO>> list(
+            @Parameter(description = "Cursor opaco retornado em nextCursor da página anterior")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página (1 a 500, padrão 50)")
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return Cursor.ok(service.listUsers(cursor, limit));
+    }
+
+    @Operation(summary = "Exporta usuários (NDJSON)", description = "Com Accept: application/x-ndjson, transmite todos os usuários (um JSON por linha) sem carregar a tabela em memória.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transmissão iniciada"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdjsonWriter.response(service::streamUsers);
+    }
+
+    @Operation(summary = "Aplica lote de usuários", description = "Aplica um lote de operações (create/update/delete) replicadas em uma única transação.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado (resultado por item)"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDTO>> applyBatch(@RequestBody List<UserBatchItemDTO> items) {
+        return ResponseEntity.ok(service.applyBatch(items));
     }
 }
@@ -1,5 +1,6 @@
 package dev.challenge.serviceb.domain;
 
+import dev.challenge.common.id.UuidStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -14,7 +15,8 @@ import java.math.BigDecimal;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_id_seq")
+    @SequenceGenerator(name = "pedido_id_seq", sequenceName = "pedido_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "descricao", nullable = false, length = 255)
@@ -32,9 +34,14 @@ public class Order {
     @Column(name = "telefone_entregador", nullable = false)
     private String phoneDelivery;
 
-    @Column(name = "external_id", nullable = false, unique = true, length = 50)
+    @Convert(converter = UuidStringConverter.class)
+    @Column(name = "external_id", nullable = false, unique = true)
     private String externalId;
 
-    @Column(name = "external_user_id", nullable = false, length = 50)
+    @Convert(converter = UuidStringConverter.class)
+    @Column(name = "external_user_id", nullable = false)
     private String externalUserId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
 }
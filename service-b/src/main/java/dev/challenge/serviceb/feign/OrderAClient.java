@@ -3,19 +3,31 @@ package dev.challenge.serviceb.feign;
 import dev.challenge.common.configuration.ReplicationFeignConfig;
 import dev.challenge.common.dto.OrderDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.replication.Replication;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @FeignClient(name = "order-a", url = "${service.a.url}", configuration = ReplicationFeignConfig.class)
 public interface OrderAClient {
 
 
     @PostMapping("/pedidos")
-    OrderDTO createOrder(@RequestBody OrderReplicaDTO dto);
+    OrderDTO createOrder(URI target,
+                         @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                         @RequestHeader(Replication.SEEN_HEADER) String seen,
+                         @RequestBody OrderReplicaDTO dto);
 
     @PutMapping("/pedidos/{id}")
-    OrderDTO updateOrder(@PathVariable("id") String id, @RequestBody OrderReplicaDTO dto);
+    OrderDTO updateOrder(URI target,
+                         @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                         @RequestHeader(Replication.SEEN_HEADER) String seen,
+                         @PathVariable("id") String id, @RequestBody OrderReplicaDTO dto);
 
     @DeleteMapping("/pedidos/{id}")
-    void deleteOrder(@PathVariable("id") String id);
+    void deleteOrder(URI target,
+                     @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                     @RequestHeader(Replication.SEEN_HEADER) String seen,
+                     @PathVariable("id") String id);
 }
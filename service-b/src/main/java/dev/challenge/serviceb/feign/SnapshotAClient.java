@@ -0,0 +1,18 @@
+package dev.challenge.serviceb.feign;
+
+import dev.challenge.common.configuration.ReplicationFeignConfig;
+import dev.challenge.common.replication.ReplicationAggregate;
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+@FeignClient(name = "snapshot-a", url = "${service.a.url}", configuration = ReplicationFeignConfig.class)
+public interface SnapshotAClient {
+
+    @GetMapping(value = "/replication/snapshot/{aggregate}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    Response export(@PathVariable("aggregate") ReplicationAggregate aggregate);
+
+    @PostMapping("/replication/snapshot/resume")
+    void resume(@RequestParam("node") int node);
+}
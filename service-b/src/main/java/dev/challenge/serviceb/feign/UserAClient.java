@@ -2,18 +2,30 @@ package dev.challenge.serviceb.feign;
 
 import dev.challenge.common.configuration.ReplicationFeignConfig;
 import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.replication.Replication;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @FeignClient(name = "user-a", url = "${service.a.url}", configuration = ReplicationFeignConfig.class)
 public interface UserAClient {
 
     @PostMapping("/usuarios")
-    UserDTO createUser(@RequestBody UserDTO dto);
+    UserDTO createUser(URI target,
+                       @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                       @RequestHeader(Replication.SEEN_HEADER) String seen,
+                       @RequestBody UserDTO dto);
 
     @PutMapping("/usuarios/{id}")
-    UserDTO updateUser(@PathVariable("id") String id, @RequestBody UserDTO dto);
+    UserDTO updateUser(URI target,
+                       @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                       @RequestHeader(Replication.SEEN_HEADER) String seen,
+                       @PathVariable("id") String id, @RequestBody UserDTO dto);
 
     @DeleteMapping("/usuarios/{id}")
-    void deleteUser(@PathVariable("id") String id);
+    void deleteUser(URI target,
+                    @RequestHeader(Replication.ORIGIN_HEADER) int origin,
+                    @RequestHeader(Replication.SEEN_HEADER) String seen,
+                    @PathVariable("id") String id);
 }
@@ -1,23 +1,47 @@
 package dev.challenge.serviceb.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.PageDTO;
 import dev.challenge.common.error.CustomException;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.common.replication.Replication;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationMetrics;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
 import dev.challenge.serviceb.adapters.OrderAdapter;
 import dev.challenge.serviceb.domain.Order;
 import dev.challenge.serviceb.domain.User;
-import dev.challenge.serviceb.feign.OrderAClient;
 import dev.challenge.serviceb.repo.OrderRepository;
 import dev.challenge.serviceb.repo.UserRepository;
 import dev.challenge.serviceb.services.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -25,54 +49,88 @@ import java.util.Objects;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final OrderAClient orderAClient;
+    private final ReplicationOutbox outbox;
     private final UserRepository userRepository;
+    private final Validator validator;
+    private final VersionClock versionClock;
+    private final ReplicationMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderReplicaDTO> listOrders() {
-        log.info("Listing orders (Service B)...");
+    public PageDTO<OrderReplicaDTO> listOrders(String cursor, Integer limit) {
+        long after = Cursor.decode(cursor);
+        int size = Cursor.limit(limit);
+        log.info("Listing orders (Service B)... after={}, limit={}", after, size);
         try {
-            List<OrderReplicaDTO> result = orderRepository.findAll()
-                    .stream()
-                    .map(orderEntity -> {
-                        String externalUserId = Objects.requireNonNull(userRepository.findById(orderEntity.getIdUser()).orElse(null)).getExternalId();
-                        return OrderAdapter.toOrderDTO(orderEntity, externalUserId);
-                    })
-                    .toList();
+            PageDTO<OrderReplicaDTO> page = Cursor.page(
+                    orderRepository.findReplicasAfter(after, Limit.of(size + 1)),
+                    size, OrderReplicaDTO::id, Function.identity());
 
-            if (result.isEmpty()) {
+            if (page.items().isEmpty() && after == 0) {
                 log.warn("No orders found (Service B).");
                 throw new CustomException(HttpStatus.NO_CONTENT, "No orders found.");
             }
 
-            log.info("Listing completed. total={}", result.size());
-            return result;
+            log.info("Listing completed. total={}, hasNext={}", page.size(), page.nextCursor() != null);
+            return page;
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error listing orders (Service B).", e);
             throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error listing orders");
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(OutputStream out) {
+        log.info("Streaming orders (Service B)...");
+        NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+        try (Stream<OrderReplicaDTO> rows = orderRepository.streamReplicas()) {
+            rows.forEach(writer::write);
+            log.info("Streaming completed. total={}", writer.rows());
+        } catch (RuntimeException e) {
+            log.error("Error streaming orders (Service B). written={}", writer.rows(), e);
+            throw e;
+        }
+    }
+
     private User requireUserByExternalId(String userExternalId) {
-        return userRepository.findByExternalId(userExternalId)
+        String canonical = ExternalIds.require(userExternalId, "externalUserId");
+        return userRepository.findByExternalId(canonical)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
-                        "User not found (externalId: " + userExternalId + ")"));
+                        "User not found (externalId: " + canonical + ")"));
+    }
+
+    private Order requireOrder(String externalId) {
+        return orderRepository.findByExternalId(externalId)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
+                        "Order not found (externalId: " + externalId + ")"));
     }
 
     @Override
     @Transactional
     public OrderReplicaDTO createOrder(OrderReplicaDTO orderDTO) {
+        long started = System.nanoTime();
+        String externalId = orderDTO.externalId() != null ? ExternalIds.require(orderDTO.externalId(), "externalId") : null;
         User userEntity = requireUserByExternalId(orderDTO.externalUserId());
+        if (Replication.incoming() && externalId != null && orderDTO.version() != null
+                && orderRepository.existsByExternalId(externalId)) {
+            log.info("Replicated create for existing order applied as update (Service B). externalId={}", externalId);
+            return applyReplicatedUpdate(externalId, orderDTO, userEntity, started);
+        }
 
         log.info("Creating order (Service B)... externalUserId={}", orderDTO.externalUserId());
         try {
-            Order savedEntity = orderRepository.save(OrderAdapter.toNewEntity(orderDTO, userEntity));
+            Order newEntity = OrderAdapter.toNewEntity(orderDTO, userEntity);
+            newEntity.setVersion(stamp(orderDTO.version()));
+            Order savedEntity = orderRepository.save(newEntity);
             OrderReplicaDTO out = OrderAdapter.toOrderDTO(savedEntity, userEntity.getExternalId());
 
-            if (!Replication.incoming()) {
-                replicateCreate(out);
-            }
+            outbox.enqueue(ReplicationAggregate.ORDER, out.externalId(), ReplicationOperation.CREATE, out);
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.CREATE, out.version(), started);
 
             log.info("Order created (Service B). externalId={}", savedEntity.getExternalId());
             return out;
@@ -85,20 +143,23 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderReplicaDTO updateOrder(String externalId, OrderReplicaDTO orderDTO) {
+        long started = System.nanoTime();
+        externalId = ExternalIds.require(externalId, "externalId");
         User userEntity = requireUserByExternalId(orderDTO.externalUserId());
-        Order foundEntity = orderRepository.findByExternalId(externalId)
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND,
-                        "Order not found (externalId: " + externalId + ")"));
+        if (Replication.incoming() && orderDTO.version() != null) {
+            return applyReplicatedUpdate(externalId, orderDTO, userEntity, started);
+        }
+
+        Order foundEntity = requireOrder(externalId);
 
         log.info("Updating order (Service B)... externalId={}", externalId);
         try {
             Order updatedEntity = OrderAdapter.updateEntityFromDto(orderDTO, foundEntity, userEntity);
+            updatedEntity.setVersion(versionClock.next());
             Order savedEntity = orderRepository.save(updatedEntity);
 
             OrderReplicaDTO out = OrderAdapter.toOrderDTO(savedEntity, userEntity.getExternalId());
-            if (!Replication.incoming()) {
-                replicateUpdate(externalId, out);
-            }
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.UPDATE, out);
 
             log.info("Order updated (Service B). externalId={}", savedEntity.getExternalId());
             return out;
@@ -108,11 +169,56 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    private OrderReplicaDTO applyReplicatedUpdate(String externalId, OrderReplicaDTO orderDTO, User userEntity,
+                                                  long started) {
+        versionClock.observe(orderDTO.version());
+        int updated;
+        try {
+            updated = updateIfNewer(externalId, orderDTO, userEntity);
+        } catch (Exception e) {
+            log.error("Error updating order from replica (Service B). externalId={}", externalId, e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error updating order");
+        }
+
+        if (updated == 0) {
+            if (!orderRepository.existsByExternalId(externalId)) {
+                throw new CustomException(HttpStatus.NOT_FOUND, "Order not found (externalId: " + externalId + ")");
+            }
+            log.info("Stale replicated order update skipped (Service B). externalId={}, version={}",
+                    externalId, orderDTO.version());
+        } else {
+            log.info("Order updated from replica (Service B). externalId={}, version={}", externalId, orderDTO.version());
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.UPDATE, orderDTO);
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.UPDATE, orderDTO.version(), started);
+        }
+        return orderDTO;
+    }
+
+    private int updateIfNewer(String externalId, OrderReplicaDTO orderDTO, User userEntity) {
+        return orderRepository.applyReplicatedUpdate(externalId, orderDTO.description(), orderDTO.value(),
+                userEntity.getId(), orderDTO.deliveryName(), orderDTO.deliveryPhone(), userEntity.getExternalId(),
+                orderDTO.version());
+    }
+
+    private long stamp(Long incomingVersion) {
+        if (Replication.incoming() && incomingVersion != null) {
+            versionClock.observe(incomingVersion);
+            return incomingVersion;
+        }
+        return versionClock.next();
+    }
+
     @Override
     @Transactional
     public void deleteOrder(String externalId) {
+        long started = System.nanoTime();
         log.info("Deleting order (Service B)... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
         boolean exists = orderRepository.existsByExternalId(externalId);
+        if (!exists && Replication.incoming()) {
+            log.info("Replicated order delete already applied (Service B). externalId={}", externalId);
+            return;
+        }
         if (!exists) {
             log.warn("Order not found for deletion (Service B). externalId={}", externalId);
             throw new CustomException(HttpStatus.NOT_FOUND, "Order not found (externalId: " + externalId + ")");
@@ -121,9 +227,8 @@ public class OrderServiceImpl implements OrderService {
         try {
             orderRepository.deleteByExternalId(externalId);
 
-            if (!Replication.incoming()) {
-                replicateDelete(externalId);
-            }
+            outbox.enqueue(ReplicationAggregate.ORDER, externalId, ReplicationOperation.DELETE, null);
+            metrics.applied(ReplicationAggregate.ORDER, ReplicationOperation.DELETE, null, started);
 
             log.info("Order deleted (Service B). externalId={}", externalId);
         } catch (Exception e) {
@@ -132,39 +237,157 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    private void replicateCreate(OrderReplicaDTO out) {
+    @Override
+    @Transactional
+    public List<BatchItemResultDTO> applyBatch(List<OrderBatchItemDTO> items) {
+        log.info("Applying order batch (Service B)... size={}", items.size());
         try {
-            orderAClient.createOrder(out);
-            log.info("Create replication sent to Service A. externalId={}", out.externalId());
+            Map<String, User> users = userRepository.findByExternalIdIn(items.stream()
+                            .map(OrderBatchItemDTO::data)
+                            .filter(Objects::nonNull)
+                            .map(OrderReplicaDTO::externalUserId)
+                            .filter(ExternalIds::isValid)
+                            .map(ExternalIds::canonical)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(User::getExternalId, Function.identity()));
+            Map<String, Order> orders = orderRepository.findByExternalIdIn(items.stream()
+                            .map(OrderBatchItemDTO::externalId)
+                            .filter(ExternalIds::isValid)
+                            .map(ExternalIds::canonical)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Order::getExternalId, Function.identity(), (a, b) -> a, HashMap::new));
+
+            Set<String> pendingDeletes = new HashSet<>();
+            List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+            for (OrderBatchItemDTO item : items) {
+                long started = System.nanoTime();
+                BatchItemResultDTO result = applyItem(item, users, orders, pendingDeletes);
+                if (applied(result)) {
+                    String externalId = ExternalIds.canonical(item.externalId());
+                    Order order = orders.get(externalId);
+                    OrderReplicaDTO replica = item.operation() == ReplicationOperation.DELETE || order == null
+                            ? null
+                            : OrderAdapter.toOrderDTO(order, order.getExternalUserId());
+                    outbox.enqueue(ReplicationAggregate.ORDER, externalId, item.operation(), replica);
+                    metrics.applied(ReplicationAggregate.ORDER, item.operation(),
+                            replica != null ? replica.version() : null, started);
+                }
+                results.add(result);
+            }
+            orderRepository.flush();
+
+            log.info("Order batch applied (Service B). size={}, failed={}",
+                    results.size(), results.stream().filter(r -> !r.succeeded()).count());
+            return results;
         } catch (Exception e) {
-            log.error("Failed to replicate order (create) to Service A. externalId={}, err={}",
-                    out.externalId(), e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY, "Failed to replicate order to Service A");
+            log.error("Error applying order batch (Service B). size={}", items.size(), e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error applying order batch");
         }
     }
 
-    private void replicateUpdate(String externalId, OrderReplicaDTO out) {
-        try {
-            orderAClient.updateOrder(externalId, out);
-            log.info("Update replication sent to Service A. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate order (update) to Service A. externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate order update to Service A (externalId: " + externalId + ")");
+    private BatchItemResultDTO applyItem(OrderBatchItemDTO item, Map<String, User> users,
+                                         Map<String, Order> orders, Set<String> pendingDeletes) {
+        String externalId = item.externalId();
+        if (item.operation() == null || externalId == null) {
+            return result(item, HttpStatus.BAD_REQUEST, "operation and externalId are required");
+        }
+        if (!ExternalIds.isValid(externalId)) {
+            return result(item, HttpStatus.BAD_REQUEST, "externalId must be a UUID");
+        }
+        externalId = ExternalIds.canonical(externalId);
+        if (item.operation() != ReplicationOperation.DELETE) {
+            String violation = validate(item.data());
+            if (violation != null) {
+                return result(item, HttpStatus.BAD_REQUEST, violation);
+            }
+        }
+
+        Order existing = orders.get(externalId);
+        Long version = item.data() != null ? item.data().version() : null;
+        versionClock.observe(version);
+        switch (item.operation()) {
+            case CREATE -> {
+                if (existing != null && version == null) {
+                    return result(item, HttpStatus.CONFLICT, "Order already exists (externalId: " + externalId + ")");
+                }
+                User user = users.get(ExternalIds.canonical(item.data().externalUserId()));
+                if (user == null) {
+                    return result(item, HttpStatus.NOT_FOUND, "User not found (externalId: " + item.data().externalUserId() + ")");
+                }
+                if (existing != null) {
+                    return applyIfNewer(item, externalId, existing, user);
+                }
+                if (pendingDeletes.remove(externalId)) {
+                    orderRepository.flush();
+                }
+                Order created = OrderAdapter.toNewEntity(item.data(), user);
+                if (version == null) {
+                    created.setVersion(versionClock.next());
+                }
+                orders.put(externalId, orderRepository.save(created));
+                return result(item, HttpStatus.CREATED, null);
+            }
+            case UPDATE -> {
+                if (existing == null) {
+                    return result(item, HttpStatus.NOT_FOUND, "Order not found (externalId: " + externalId + ")");
+                }
+                User user = users.get(ExternalIds.canonical(item.data().externalUserId()));
+                if (user == null) {
+                    return result(item, HttpStatus.NOT_FOUND, "User not found (externalId: " + item.data().externalUserId() + ")");
+                }
+                if (version != null) {
+                    return applyIfNewer(item, externalId, existing, user);
+                }
+                OrderAdapter.updateEntityFromDto(item.data(), existing, user);
+                existing.setVersion(versionClock.next());
+                return result(item, HttpStatus.OK, null);
+            }
+            case DELETE -> {
+                if (existing == null) {
+                    return Replication.incoming()
+                            ? result(item, HttpStatus.OK, "Already deleted")
+                            : result(item, HttpStatus.NOT_FOUND, "Order not found (externalId: " + externalId + ")");
+                }
+                orderRepository.delete(existing);
+                orders.remove(externalId);
+                pendingDeletes.add(externalId);
+                return result(item, HttpStatus.NO_CONTENT, null);
+            }
+            default -> {
+                return result(item, HttpStatus.BAD_REQUEST, "Unsupported operation " + item.operation());
+            }
         }
     }
 
-    private void replicateDelete(String externalId) {
-        try {
-            orderAClient.deleteOrder(externalId);
-            log.info("Delete replication sent to Service A. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate order (delete) to Service A. externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate order deletion to Service A (externalId: " + externalId + ")");
+    /**
+     * Versioned create or update: a newer version overwrites the row, an older one is a no-op. The bulk
+     * update bypasses the persistence context, so the managed entity is refreshed for later items of the batch.
+     */
+    private BatchItemResultDTO applyIfNewer(OrderBatchItemDTO item, String externalId, Order existing, User user) {
+        if (updateIfNewer(externalId, item.data(), user) == 0) {
+            return result(item, HttpStatus.OK, "Stale version ignored");
         }
+        entityManager.refresh(existing);
+        return result(item, HttpStatus.OK, null);
+    }
+
+    private String validate(Object data) {
+        if (data == null) return "data is required";
+        Set<ConstraintViolation<Object>> violations = validator.validate(data);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
+    private static boolean applied(BatchItemResultDTO result) {
+        return result.succeeded() && result.message() == null;
+    }
+
+    private static BatchItemResultDTO result(OrderBatchItemDTO item, HttpStatus status, String message) {
+        return BatchItemResultDTO.of(item.externalId(), item.operation(), status.value(), message);
+    }
 }
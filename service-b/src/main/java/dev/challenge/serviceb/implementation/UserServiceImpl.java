@@ -1,20 +1,45 @@
 package dev.challenge.serviceb.implementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
 import dev.challenge.common.dto.UserDTO;
 import dev.challenge.common.error.CustomException;
+import dev.challenge.common.id.ExternalIds;
+import dev.challenge.common.pagination.Cursor;
+import dev.challenge.common.pagination.NdjsonWriter;
 import dev.challenge.common.replication.Replication;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationMetrics;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
 import dev.challenge.serviceb.adapters.UserAdapter;
 import dev.challenge.serviceb.domain.User;
-import dev.challenge.serviceb.feign.UserAClient;
 import dev.challenge.serviceb.repo.UserRepository;
 import dev.challenge.serviceb.services.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -22,20 +47,33 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final UserAClient userAClient;
+    private final ReplicationOutbox outbox;
+    private final Validator validator;
+    private final VersionClock versionClock;
+    private final ReplicationMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public UserDTO createUser(UserDTO dto) {
+        long started = System.nanoTime();
+        String externalId = dto.externalId() != null ? ExternalIds.require(dto.externalId(), "externalId") : null;
+        if (Replication.incoming() && externalId != null && dto.version() != null
+                && userRepository.existsByExternalId(externalId)) {
+            log.info("Replicated create for existing user applied as update (Service B). externalId={}", externalId);
+            return applyReplicatedUpdate(externalId, dto, started);
+        }
         try {
-            User savedEntity = userRepository.save(UserAdapter.toNewEntity(dto));
+            User newEntity = UserAdapter.toNewEntity(dto);
+            newEntity.setVersion(stamp(dto.version()));
+            User savedEntity = userRepository.save(newEntity);
             UserDTO out = UserAdapter.toUserDTO(savedEntity);
 
             log.info("User created. id={}, externalId={}", savedEntity.getId(), savedEntity.getExternalId());
 
-            if (!Replication.incoming()) {
-                replicateCreate(out);
-            }
+            outbox.enqueue(ReplicationAggregate.USER, out.externalId(), ReplicationOperation.CREATE, out);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.CREATE, out.version(), started);
             return out;
         } catch (Exception e) {
             log.error("Error creating user (Service B). payload={}", dto, e);
@@ -46,22 +84,23 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDTO updateUser(String externalId, UserDTO dto) {
+        long started = System.nanoTime();
         log.info("Updating user (Service B)... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
 
-        User foundEntity = userRepository.findByExternalId(externalId)
-                .orElseThrow(() -> {
-                    log.warn("User not found for update (Service B). externalId={}", externalId);
-                    return new CustomException(HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
-                });
+        if (Replication.incoming() && dto.version() != null) {
+            return applyReplicatedUpdate(externalId, dto, started);
+        }
+
+        User foundEntity = requireUserForUpdate(externalId);
 
         try {
             UserAdapter.updateEntityFromDto(dto, foundEntity);
+            foundEntity.setVersion(versionClock.next());
             User savedEntity = userRepository.save(foundEntity);
             UserDTO out = UserAdapter.toUserDTO(savedEntity);
 
-            if (!Replication.incoming()) {
-                replicateUpdate(externalId, out);
-            }
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.UPDATE, out);
 
             log.info("User updated (Service B). externalId={}", externalId);
             return out;
@@ -71,11 +110,57 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    private User requireUserForUpdate(String externalId) {
+        return userRepository.findByExternalId(externalId)
+                .orElseThrow(() -> {
+                    log.warn("User not found for update (Service B). externalId={}", externalId);
+                    return new CustomException(HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
+                });
+    }
+
+    private UserDTO applyReplicatedUpdate(String externalId, UserDTO dto, long started) {
+        versionClock.observe(dto.version());
+        int updated;
+        try {
+            updated = userRepository.applyReplicatedUpdate(externalId, dto.name(), dto.email(), dto.version());
+        } catch (Exception e) {
+            log.error("Error updating user from replica (Service B). externalId={}, payload={}", externalId, dto, e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error updating user");
+        }
+
+        if (updated == 0) {
+            if (!userRepository.existsByExternalId(externalId)) {
+                log.warn("User not found for update (Service B). externalId={}", externalId);
+                throw new CustomException(HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
+            }
+            log.info("Stale replicated user update skipped (Service B). externalId={}, version={}", externalId, dto.version());
+        } else {
+            log.info("User updated from replica (Service B). externalId={}, version={}", externalId, dto.version());
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.UPDATE, dto);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.UPDATE, dto.version(), started);
+        }
+        return dto;
+    }
+
+    private long stamp(Long incomingVersion) {
+        if (Replication.incoming() && incomingVersion != null) {
+            versionClock.observe(incomingVersion);
+            return incomingVersion;
+        }
+        return versionClock.next();
+    }
+
     @Override
     @Transactional
     public void deleteUser(String externalId) {
+        long started = System.nanoTime();
         log.info("Deleting user (Service B)... externalId={}", externalId);
+        externalId = ExternalIds.require(externalId, "externalId");
         boolean exists = userRepository.existsByExternalId(externalId);
+        if (!exists && Replication.incoming()) {
+            log.info("Replicated user delete already applied (Service B). externalId={}", externalId);
+            return;
+        }
         if (!exists) {
             log.warn("User not found for deletion (Service B). externalId={}", externalId);
             throw new CustomException(HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
@@ -84,9 +169,8 @@ public class UserServiceImpl implements UserService {
         try {
             userRepository.deleteByExternalId(externalId);
 
-            if (!Replication.incoming()) {
-                replicateDelete(externalId);
-            }
+            outbox.enqueue(ReplicationAggregate.USER, externalId, ReplicationOperation.DELETE, null);
+            metrics.applied(ReplicationAggregate.USER, ReplicationOperation.DELETE, null, started);
 
             log.info("User deleted (Service B). externalId={}", externalId);
         } catch (Exception e) {
@@ -97,58 +181,205 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDTO> listUsers() {
-        log.info("Listing users (Service B)...");
+    public PageDTO<UserDTO> listUsers(String cursor, Integer limit) {
+        long after = Cursor.decode(cursor);
+        int size = Cursor.limit(limit);
+        log.info("Listing users (Service B)... after={}, limit={}", after, size);
         try {
-            List<UserDTO> result = userRepository.findAll().stream()
-                    .map(UserAdapter::toUserDTO)
-                    .toList();
+            PageDTO<UserDTO> page = Cursor.page(
+                    userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1)),
+                    size, User::getId, UserAdapter::toUserDTO);
 
-            if (result.isEmpty()) {
+            if (page.items().isEmpty() && after == 0) {
                 log.warn("No users found (Service B).");
                 throw new CustomException(HttpStatus.NO_CONTENT, "No users found.");
             }
 
-            log.info("Listing completed. total={}", result.size());
-            return result;
+            log.info("Listing completed. total={}, hasNext={}", page.size(), page.nextCursor() != null);
+            return page;
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error listing users (Service B).", e);
             throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error listing users");
         }
     }
 
-    private void replicateCreate(UserDTO out) {
-        try {
-            userAClient.createUser(out);
-            log.info("Create replication sent to Service A. externalId={}", out.externalId());
-        } catch (Exception e) {
-            log.error("Failed to replicate user (create) to Service A. externalId={}, err={}",
-                    out.externalId(), e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY, "Failed to replicate user to Service A");
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(OutputStream out) {
+        log.info("Streaming users (Service B)...");
+        NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+        try (Stream<User> rows = userRepository.streamAllByOrderByIdAsc()) {
+            rows.forEach(user -> {
+                writer.write(UserAdapter.toUserDTO(user));
+                entityManager.detach(user);
+            });
+            log.info("Streaming completed. total={}", writer.rows());
+        } catch (RuntimeException e) {
+            log.error("Error streaming users (Service B). written={}", writer.rows(), e);
+            throw e;
         }
     }
 
-    private void replicateUpdate(String externalId, UserDTO out) {
+    @Override
+    @Transactional
+    public List<BatchItemResultDTO> applyBatch(List<UserBatchItemDTO> items) {
+        log.info("Applying user batch (Service B)... size={}", items.size());
         try {
-            userAClient.updateUser(externalId, out);
-            log.info("Update replication sent to Service A. externalId={}", externalId);
+            Map<String, User> users = userRepository.findByExternalIdIn(items.stream()
+                            .map(UserBatchItemDTO::externalId)
+                            .filter(ExternalIds::isValid)
+                            .map(ExternalIds::canonical)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(User::getExternalId, Function.identity(), (a, b) -> a, HashMap::new));
+            Map<String, String> emailOwners = userRepository.findByEmailIn(items.stream()
+                            .map(UserBatchItemDTO::data)
+                            .filter(Objects::nonNull)
+                            .map(UserDTO::email)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(User::getEmail, User::getExternalId, (a, b) -> a, HashMap::new));
+
+            Set<String> pendingChanges = new HashSet<>();
+            List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+            for (UserBatchItemDTO item : items) {
+                long started = System.nanoTime();
+                BatchItemResultDTO result = applyItem(item, users, emailOwners, pendingChanges);
+                if (applied(result)) {
+                    String externalId = ExternalIds.canonical(item.externalId());
+                    User user = users.get(externalId);
+                    UserDTO replica = item.operation() == ReplicationOperation.DELETE || user == null
+                            ? null
+                            : UserAdapter.toUserDTO(user);
+                    outbox.enqueue(ReplicationAggregate.USER, externalId, item.operation(), replica);
+                    metrics.applied(ReplicationAggregate.USER, item.operation(),
+                            replica != null ? replica.version() : null, started);
+                }
+                results.add(result);
+            }
+            userRepository.flush();
+
+            log.info("User batch applied (Service B). size={}, failed={}",
+                    results.size(), results.stream().filter(r -> !r.succeeded()).count());
+            return results;
         } catch (Exception e) {
-            log.error("Failed to replicate user (update) to Service A. externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate user update to Service A (externalId: " + externalId + ")");
+            log.error("Error applying user batch (Service B). size={}", items.size(), e);
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Error applying user batch");
         }
     }
 
-    private void replicateDelete(String externalId) {
-        try {
-            userAClient.deleteUser(externalId);
-            log.info("Delete replication sent to Service A. externalId={}", externalId);
-        } catch (Exception e) {
-            log.error("Failed to replicate user (delete) to Service A. externalId={}, err={}",
-                    externalId, e.getMessage(), e);
-            throw new CustomException(HttpStatus.BAD_GATEWAY,
-                    "Failed to replicate user deletion to Service A (externalId: " + externalId + ")");
+    private BatchItemResultDTO applyItem(UserBatchItemDTO item, Map<String, User> users,
+                                         Map<String, String> emailOwners, Set<String> pendingChanges) {
+        String externalId = item.externalId();
+        if (item.operation() == null || externalId == null) {
+            return result(item, HttpStatus.BAD_REQUEST, "operation and externalId are required");
         }
+        if (!ExternalIds.isValid(externalId)) {
+            return result(item, HttpStatus.BAD_REQUEST, "externalId must be a UUID");
+        }
+        externalId = ExternalIds.canonical(externalId);
+        if (item.operation() != ReplicationOperation.DELETE) {
+            String violation = validate(item.data());
+            if (violation != null) {
+                return result(item, HttpStatus.BAD_REQUEST, violation);
+            }
+            String owner = emailOwners.get(item.data().email());
+            if (owner != null && !owner.equals(externalId)) {
+                return result(item, HttpStatus.CONFLICT, "Email already in use (email: " + item.data().email() + ")");
+            }
+        }
+
+        User existing = users.get(externalId);
+        Long version = item.data() != null ? item.data().version() : null;
+        versionClock.observe(version);
+        switch (item.operation()) {
+            case CREATE -> {
+                if (existing != null) {
+                    if (version == null) {
+                        return result(item, HttpStatus.CONFLICT, "User already exists (externalId: " + externalId + ")");
+                    }
+                    return applyIfNewer(item, externalId, existing, emailOwners);
+                }
+                if (!pendingChanges.isEmpty()) {
+                    userRepository.flush();
+                    pendingChanges.clear();
+                }
+                User entity = UserAdapter.toNewEntity(item.data());
+                if (version == null) {
+                    entity.setVersion(versionClock.next());
+                }
+                User created = userRepository.save(entity);
+                users.put(externalId, created);
+                emailOwners.put(created.getEmail(), externalId);
+                return result(item, HttpStatus.CREATED, null);
+            }
+            case UPDATE -> {
+                if (existing == null) {
+                    return result(item, HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
+                }
+                if (version != null) {
+                    return applyIfNewer(item, externalId, existing, emailOwners);
+                }
+                emailOwners.remove(existing.getEmail());
+                UserAdapter.updateEntityFromDto(item.data(), existing);
+                existing.setVersion(versionClock.next());
+                emailOwners.put(existing.getEmail(), externalId);
+                pendingChanges.add(externalId);
+                return result(item, HttpStatus.OK, null);
+            }
+            case DELETE -> {
+                if (existing == null) {
+                    return Replication.incoming()
+                            ? result(item, HttpStatus.OK, "Already deleted")
+                            : result(item, HttpStatus.NOT_FOUND, "User not found (externalId: " + externalId + ")");
+                }
+                userRepository.delete(existing);
+                users.remove(externalId);
+                emailOwners.remove(existing.getEmail());
+                pendingChanges.add(externalId);
+                return result(item, HttpStatus.NO_CONTENT, null);
+            }
+            default -> {
+                return result(item, HttpStatus.BAD_REQUEST, "Unsupported operation " + item.operation());
+            }
+        }
+    }
+
+    /**
+     * Versioned create or update: a newer version overwrites the row, an older one is a no-op. The bulk
+     * update bypasses the persistence context, so the managed entity is refreshed for later items of the batch.
+     */
+    private BatchItemResultDTO applyIfNewer(UserBatchItemDTO item, String externalId, User existing,
+                                            Map<String, String> emailOwners) {
+        int updated = userRepository.applyReplicatedUpdate(externalId, item.data().name(),
+                item.data().email(), item.data().version());
+        if (updated == 0) {
+            return result(item, HttpStatus.OK, "Stale version ignored");
+        }
+        emailOwners.remove(existing.getEmail());
+        entityManager.refresh(existing);
+        emailOwners.put(existing.getEmail(), externalId);
+        return result(item, HttpStatus.OK, null);
+    }
+
+    private String validate(Object data) {
+        if (data == null) return "data is required";
+        Set<ConstraintViolation<Object>> violations = validator.validate(data);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static boolean applied(BatchItemResultDTO result) {
+        return result.succeeded() && result.message() == null;
+    }
+
+    private static BatchItemResultDTO result(UserBatchItemDTO item, HttpStatus status, String message) {
+        return BatchItemResultDTO.of(item.externalId(), item.operation(), status.value(), message);
     }
 }
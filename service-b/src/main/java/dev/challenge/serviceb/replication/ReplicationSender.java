@@ -0,0 +1,81 @@
+package dev.challenge.serviceb.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.feign.CallNotPermittedException;
+import dev.challenge.common.replication.OutboxEvent;
+import dev.challenge.common.replication.OutboxTransport;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import dev.challenge.serviceb.feign.OrderAClient;
+import dev.challenge.serviceb.feign.UserAClient;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ReplicationSender implements OutboxTransport {
+
+    private final OrderAClient orderClient;
+    private final UserAClient userClient;
+    private final ObjectMapper objectMapper;
+
+    /** A has no batch endpoints, so the run is sent one call per event and each call yields its own result. */
+    @Override
+    public List<BatchItemResultDTO> send(Peer peer, List<OutboxEvent> events) throws IOException {
+        URI target = URI.create(peer.url());
+        List<BatchItemResultDTO> results = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                switch (event.getAggregateType()) {
+                    case ORDER -> sendOrder(target, event);
+                    case USER -> sendUser(target, event);
+                }
+                results.add(BatchItemResultDTO.of(event.getAggregateId(), event.getOperation(),
+                        HttpStatus.OK.value(), null));
+            } catch (CallNotPermittedException e) {
+                if (results.isEmpty()) throw e;
+                break;
+            } catch (FeignException e) {
+                results.add(BatchItemResultDTO.of(event.getAggregateId(), event.getOperation(),
+                        e.status(), e.getMessage()));
+            } catch (RuntimeException e) {
+                results.add(BatchItemResultDTO.of(event.getAggregateId(), event.getOperation(),
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private void sendOrder(URI target, OutboxEvent event) throws IOException {
+        int origin = event.getOriginNode();
+        String seen = event.getSeen();
+        switch (event.getOperation()) {
+            case CREATE -> orderClient.createOrder(target, origin, seen,
+                    objectMapper.readValue(event.getPayload(), OrderReplicaDTO.class));
+            case UPDATE -> orderClient.updateOrder(target, origin, seen, event.getAggregateId(),
+                    objectMapper.readValue(event.getPayload(), OrderReplicaDTO.class));
+            case DELETE -> orderClient.deleteOrder(target, origin, seen, event.getAggregateId());
+        }
+    }
+
+    private void sendUser(URI target, OutboxEvent event) throws IOException {
+        int origin = event.getOriginNode();
+        String seen = event.getSeen();
+        switch (event.getOperation()) {
+            case CREATE -> userClient.createUser(target, origin, seen,
+                    objectMapper.readValue(event.getPayload(), UserDTO.class));
+            case UPDATE -> userClient.updateUser(target, origin, seen, event.getAggregateId(),
+                    objectMapper.readValue(event.getPayload(), UserDTO.class));
+            case DELETE -> userClient.deleteUser(target, origin, seen, event.getAggregateId());
+        }
+    }
+}
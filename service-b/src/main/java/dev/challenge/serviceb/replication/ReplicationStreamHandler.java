@@ -0,0 +1,206 @@
+package dev.challenge.serviceb.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.ReplicationAckDTO;
+import dev.challenge.common.dto.ReplicationFrameDTO;
+import dev.challenge.common.error.CustomException;
+import dev.challenge.common.replication.Provenance;
+import dev.challenge.common.replication.ReplicationContext;
+import dev.challenge.common.replication.StreamProperties;
+import dev.challenge.serviceb.services.OrderService;
+import dev.challenge.serviceb.services.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Receiving end of the replication stream. Frames of one connection are applied concurrently, up to
+ * {@code replication.stream.apply-concurrency} at a time: the sender keeps at most one frame in flight per
+ * lane and lanes partition replication keys, so frames that overlap in time never touch the same record.
+ * Acks stay cumulative because the sender numbers frames in send order; an ack only advances over the
+ * prefix of frames that has finished applying. A frame that fails as a whole is acknowledged with every
+ * item failed instead of stalling the connection.
+ */
+@Slf4j
+@Component
+public class ReplicationStreamHandler extends AbstractWebSocketHandler {
+
+    private final OrderService orderService;
+    private final UserService userService;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final StreamProperties properties;
+    private final Counter framesCounter;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    public ReplicationStreamHandler(OrderService orderService, UserService userService, ObjectMapper objectMapper,
+                                    MappingJackson2SmileHttpMessageConverter smileConverter,
+                                    StreamProperties properties, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.userService = userService;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = smileConverter.getObjectMapper();
+        this.properties = properties;
+        this.framesCounter = Counter.builder("replication.stream.frames.received")
+                .description("Replication frames received over the stream")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        connections.put(session.getId(), new Connection(session, properties.applyConcurrency()));
+        log.info("Replication stream opened. session={}, remote={}", session.getId(), session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        submit(session, jsonMapper.readValue(message.getPayload(), ReplicationFrameDTO.class), false);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        ByteBuffer payload = message.getPayload();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        submit(session, smileMapper.readValue(bytes, ReplicationFrameDTO.class), true);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        connections.remove(session.getId());
+        log.info("Replication stream closed. session={}, status={}", session.getId(), status);
+    }
+
+    private void submit(WebSocketSession session, ReplicationFrameDTO frame, boolean binary) {
+        Connection connection = connections.get(session.getId());
+        if (connection != null) {
+            framesCounter.increment();
+            connection.submit(frame, binary);
+        }
+    }
+
+    private List<BatchItemResultDTO> apply(ReplicationFrameDTO frame) {
+        try {
+            ReplicationContext.mark(Provenance.parse(String.valueOf(frame.origin()), frame.seen()));
+            if (frame.orders() != null && !frame.orders().isEmpty()) {
+                return orderService.applyBatch(frame.orders());
+            }
+            if (frame.users() != null && !frame.users().isEmpty()) {
+                return userService.applyBatch(frame.users());
+            }
+            return List.of();
+        } catch (Exception e) {
+            log.error("Error applying replication frame. seq={}", frame.seq(), e);
+            return failed(frame, e instanceof CustomException ce ? ce.getStatus().value() : 500, e.getMessage());
+        } finally {
+            ReplicationContext.clear();
+        }
+    }
+
+    private static List<BatchItemResultDTO> failed(ReplicationFrameDTO frame, int status, String message) {
+        List<BatchItemResultDTO> failed = new ArrayList<>();
+        if (frame.orders() != null) {
+            frame.orders().forEach(i -> failed.add(BatchItemResultDTO.of(i.externalId(), i.operation(), status, message)));
+        }
+        if (frame.users() != null) {
+            frame.users().forEach(i -> failed.add(BatchItemResultDTO.of(i.externalId(), i.operation(), status, message)));
+        }
+        return failed;
+    }
+
+    private final class Connection {
+
+        private final WebSocketSession session;
+        private final Semaphore permits;
+        private final Deque<Applying> arrived = new ArrayDeque<>();
+
+        private Connection(WebSocketSession session, int concurrency) {
+            this.session = session;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        void submit(ReplicationFrameDTO frame, boolean binary) {
+            Applying applying = new Applying(frame, binary);
+            synchronized (this) {
+                arrived.addLast(applying);
+            }
+            Thread.ofVirtual()
+                    .name("replication-stream-" + session.getId() + "-" + frame.seq())
+                    .start(() -> run(applying));
+        }
+
+        private void run(Applying applying) {
+            List<BatchItemResultDTO> results = null;
+            permits.acquireUninterruptibly();
+            try {
+                results = apply(applying.frame);
+            } finally {
+                permits.release();
+                complete(applying, results != null ? results : failed(applying.frame, 500, "Apply aborted"));
+            }
+        }
+
+        private synchronized void complete(Applying applying, List<BatchItemResultDTO> results) {
+            applying.results = results;
+            long upTo = 0;
+            boolean binary = false;
+            Map<Long, List<BatchItemResultDTO>> failures = new HashMap<>();
+            while (!arrived.isEmpty() && arrived.peekFirst().results != null) {
+                Applying done = arrived.pollFirst();
+                if (done.results.stream().anyMatch(r -> !r.succeeded())) {
+                    failures.put(done.frame.seq(), done.results);
+                }
+                upTo = done.frame.seq();
+                binary = done.binary;
+            }
+            if (upTo > 0) {
+                acknowledge(new ReplicationAckDTO(upTo, failures), binary);
+            }
+        }
+
+        private void acknowledge(ReplicationAckDTO ack, boolean binary) {
+            if (!session.isOpen()) return;
+            try {
+                WebSocketMessage<?> message = binary
+                        ? new BinaryMessage(smileMapper.writeValueAsBytes(ack))
+                        : new TextMessage(jsonMapper.writeValueAsString(ack));
+                session.sendMessage(message);
+            } catch (IOException | IllegalStateException e) {
+                log.warn("Failed to acknowledge replication frames, sender will retry. session={}, upTo={}, err={}",
+                        session.getId(), ack.upTo(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class Applying {
+
+        private final ReplicationFrameDTO frame;
+        private final boolean binary;
+        private List<BatchItemResultDTO> results;
+
+        private Applying(ReplicationFrameDTO frame, boolean binary) {
+            this.frame = frame;
+            this.binary = binary;
+        }
+    }
+}
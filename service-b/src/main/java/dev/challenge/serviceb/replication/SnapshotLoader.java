@@ -0,0 +1,166 @@
+package dev.challenge.serviceb.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.SnapshotHeaderDTO;
+import dev.challenge.common.dto.SnapshotLoadDTO;
+import dev.challenge.common.dto.UserDTO;
+import dev.challenge.common.error.CustomException;
+import dev.challenge.common.replication.NodeProperties;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.SnapshotProperties;
+import dev.challenge.serviceb.feign.SnapshotAClient;
+import feign.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulk-loads a Service A snapshot with batched upserts and then asks Service A to re-arm every event
+ * it parked for this node. Rows only overwrite older versions, so events that reach this service while
+ * the load is running are never rolled back by it, and replayed events older than the snapshot are no-ops.
+ */
+@Slf4j
+@Component
+public class SnapshotLoader {
+
+    private static final String UPSERT_USER = """
+            INSERT INTO usuario (external_id, nome, email, version) VALUES (?::uuid, ?, ?, ?)
+            ON CONFLICT (external_id) DO UPDATE
+               SET nome = EXCLUDED.nome, email = EXCLUDED.email, version = EXCLUDED.version
+             WHERE usuario.version < EXCLUDED.version""";
+
+    private static final String UPSERT_ORDER = """
+            INSERT INTO pedido (external_id, external_user_id, descricao, valor, id_usuario,
+                                nome_entregador, telefone_entregador, version)
+            SELECT ?::uuid, ?::uuid, ?, ?, u.id, ?, ?, ? FROM usuario u WHERE u.external_id = ?::uuid
+            ON CONFLICT (external_id) DO UPDATE
+               SET external_user_id = EXCLUDED.external_user_id, descricao = EXCLUDED.descricao,
+                   valor = EXCLUDED.valor, id_usuario = EXCLUDED.id_usuario,
+                   nome_entregador = EXCLUDED.nome_entregador, telefone_entregador = EXCLUDED.telefone_entregador,
+                   version = EXCLUDED.version
+             WHERE pedido.version < EXCLUDED.version""";
+
+    private final SnapshotAClient client;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final NodeProperties node;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SnapshotLoader(SnapshotAClient client, JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper, NodeProperties node, SnapshotProperties properties) {
+        this.client = client;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.node = node;
+        this.batchSize = properties.loadBatchSize();
+    }
+
+    public SnapshotLoadDTO bootstrap() {
+        if (!running.compareAndSet(false, true)) {
+            throw new CustomException(HttpStatus.CONFLICT, "Snapshot load already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Loaded users = load(ReplicationAggregate.USER);
+            Loaded orders = load(ReplicationAggregate.ORDER);
+            long watermark = Math.min(users.watermark(), orders.watermark());
+            client.resume(node.id());
+
+            SnapshotLoadDTO result = new SnapshotLoadDTO(users.rows(), orders.rows(),
+                    users.skipped() + orders.skipped(), watermark, System.currentTimeMillis() - start);
+            log.info("Snapshot loaded from Service A. users={}, orders={}, skipped={}, watermark={}, elapsedMs={}",
+                    result.users(), result.orders(), result.skipped(), result.watermark(), result.elapsedMs());
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private record Loaded(long rows, long skipped, long watermark) {}
+
+    private Loaded load(ReplicationAggregate aggregate) {
+        try (Response response = client.export(aggregate);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(body(response, aggregate), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new CustomException(HttpStatus.BAD_GATEWAY, "Empty snapshot from Service A (aggregate: " + aggregate + ")");
+            }
+            SnapshotHeaderDTO header = objectMapper.readValue(line, SnapshotHeaderDTO.class);
+
+            long rows = 0;
+            long skipped = 0;
+            List<String> batch = new ArrayList<>(batchSize);
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    skipped += flush(aggregate, batch);
+                    rows += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                skipped += flush(aggregate, batch);
+                rows += batch.size();
+            }
+            log.info("Snapshot aggregate loaded. aggregate={}, rows={}, skipped={}, watermark={}",
+                    aggregate, rows, skipped, header.watermark());
+            return new Loaded(rows - skipped, skipped, header.watermark());
+        } catch (IOException e) {
+            log.error("Error loading snapshot from Service A. aggregate={}", aggregate, e);
+            throw new CustomException(HttpStatus.BAD_GATEWAY, "Error loading snapshot from Service A");
+        }
+    }
+
+    private static InputStream body(Response response, ReplicationAggregate aggregate) throws IOException {
+        if (response.status() != 200 || response.body() == null) {
+            throw new CustomException(HttpStatus.BAD_GATEWAY,
+                    "Snapshot export failed on Service A (aggregate: " + aggregate + ", status: " + response.status() + ")");
+        }
+        return response.body().asInputStream();
+    }
+
+    private long flush(ReplicationAggregate aggregate, List<String> lines) throws IOException {
+        List<Object[]> args = new ArrayList<>(lines.size());
+        if (aggregate == ReplicationAggregate.USER) {
+            for (String line : lines) {
+                UserDTO user = objectMapper.readValue(line, UserDTO.class);
+                args.add(new Object[]{user.externalId(), user.name(), user.email(), version(user.version())});
+            }
+        } else {
+            for (String line : lines) {
+                OrderReplicaDTO order = objectMapper.readValue(line, OrderReplicaDTO.class);
+                args.add(new Object[]{order.externalId(), order.externalUserId(), order.description(), order.value(),
+                        order.deliveryName(), order.deliveryPhone(), version(order.version()), order.externalUserId()});
+            }
+        }
+        String sql = aggregate == ReplicationAggregate.USER ? UPSERT_USER : UPSERT_ORDER;
+        int[] counts = tx.execute(status -> jdbc.batchUpdate(sql, args));
+        long skipped = 0;
+        for (int count : counts) {
+            if (count == 0) skipped++;
+        }
+        return skipped;
+    }
+
+    private static long version(Long version) {
+        return version == null ? 0L : version;
+    }
+}
@@ -1,12 +1,58 @@
 package dev.challenge.serviceb.repo;
 
+import dev.challenge.common.dto.OrderReplicaDTO;
 import dev.challenge.serviceb.domain.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @Query("""
+            select new dev.challenge.common.dto.OrderReplicaDTO(o.id, o.description, o.value, o.externalId,
+                   o.deliveryName, o.phoneDelivery, o.externalUserId, o.version)
+              from Order o
+             where o.id > :after
+             order by o.id
+            """)
+    List<OrderReplicaDTO> findReplicasAfter(@Param("after") Long after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new dev.challenge.common.dto.OrderReplicaDTO(o.id, o.description, o.value, o.externalId,
+                   o.deliveryName, o.phoneDelivery, o.externalUserId, o.version)
+              from Order o
+             order by o.id
+            """)
+    Stream<OrderReplicaDTO> streamReplicas();
+
     Optional<Order> findByExternalId(String id);
     boolean existsByExternalId(String id);
     void deleteByExternalId(String id);
+    List<Order> findByExternalIdIn(Collection<String> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Order o set o.description = :description, o.value = :value, o.idUser = :idUser,
+                   o.deliveryName = :deliveryName, o.phoneDelivery = :phoneDelivery,
+                   o.externalUserId = :externalUserId, o.version = :version
+             where o.externalId = :externalId and o.version < :version
+            """)
+    int applyReplicatedUpdate(@Param("externalId") String externalId, @Param("description") String description,
+                              @Param("value") BigDecimal value, @Param("idUser") Long idUser,
+                              @Param("deliveryName") String deliveryName, @Param("phoneDelivery") String phoneDelivery,
+                              @Param("externalUserId") String externalUserId, @Param("version") long version);
 }
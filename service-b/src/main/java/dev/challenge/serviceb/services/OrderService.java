@@ -1,11 +1,17 @@
 package dev.challenge.serviceb.services;
 
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderBatchItemDTO;
 import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.PageDTO;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface OrderService {
-    List<OrderReplicaDTO> listOrders();
+    PageDTO<OrderReplicaDTO> listOrders(String cursor, Integer limit);
+    void streamOrders(OutputStream out);
     OrderReplicaDTO createOrder(OrderReplicaDTO dto);
     OrderReplicaDTO updateOrder(String id, OrderReplicaDTO dto);
     void deleteOrder(String id);
+    List<BatchItemResultDTO> applyBatch(List<OrderBatchItemDTO> items);
 }
@@ -1,8 +1,12 @@
 package dev.challenge.serviceb.services;
 
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.dto.UserBatchItemDTO;
 import dev.challenge.common.dto.UserDTO;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
@@ -13,5 +17,9 @@ public interface UserService {
 
     void deleteUser(String id);
 
-    List<UserDTO> listUsers();
+    PageDTO<UserDTO> listUsers(String cursor, Integer limit);
+
+    void streamUsers(OutputStream out);
+
+    List<BatchItemResultDTO> applyBatch(List<UserBatchItemDTO> items);
 }
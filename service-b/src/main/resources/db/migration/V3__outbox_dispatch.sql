@@ -0,0 +1,3 @@
+ALTER TABLE replication_outbox ADD COLUMN IF NOT EXISTS dispatched_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_replication_outbox_pending ON replication_outbox(id) WHERE dispatched_at IS NULL;
@@ -0,0 +1,4 @@
+-- Mesmo passo do allocationSize das entidades, para permitir inserts em lote
+ALTER SEQUENCE usuario_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pedido_id_seq INCREMENT BY 50;
+ALTER SEQUENCE replication_outbox_id_seq INCREMENT BY 50;
@@ -0,0 +1,109 @@
+package dev.challenge.serviceb.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.dto.PageDTO;
+import dev.challenge.common.replication.ReplicationMetrics;
+import dev.challenge.common.replication.ReplicationOutbox;
+import dev.challenge.common.replication.VersionClock;
+import dev.challenge.serviceb.domain.Order;
+import dev.challenge.serviceb.repo.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the order listing against N+1 regressions: a page of replicas, each owned by a different
+ * user, must come from a single prepared statement, including orders whose user is not replicated yet.
+ */
+@Testcontainers
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderListingQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    // Keeps the slice away from ServiceBApplication, whose Feign clients need the full context.
+    @Configuration
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @Import(OrderServiceImpl.class)
+    static class JpaSlice {
+    }
+
+    @MockBean
+    private ReplicationOutbox outbox;
+
+    @MockBean
+    private Validator validator;
+
+    @MockBean
+    private VersionClock versionClock;
+
+    @MockBean
+    private ReplicationMetrics metrics;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listOrdersUsesOneStatement() {
+        for (int i = 1; i <= 5; i++) {
+            jdbc.update("INSERT INTO usuario (external_id, nome, email) VALUES (gen_random_uuid(), ?, ?)",
+                    "User " + i, "user" + i + "@example.com");
+        }
+        jdbc.update("""
+                INSERT INTO pedido (external_id, external_user_id, descricao, valor, id_usuario,
+                                    nome_entregador, telefone_entregador)
+                SELECT gen_random_uuid(), u.external_id, 'Order of ' || u.nome, 10.00, u.id, 'Courier', '11999999999'
+                  FROM usuario u""");
+        // Replicated before its owner: no usuario row carries this external user id
+        UUID missingUser = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO pedido (external_id, external_user_id, descricao, valor, id_usuario,
+                                    nome_entregador, telefone_entregador)
+                SELECT gen_random_uuid(), ?, 'Orphan order', 10.00, min(id), 'Courier', '11999999999'
+                  FROM usuario""", missingUser);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageDTO<OrderReplicaDTO> page = orderService.listOrders(null, 10);
+
+        assertThat(page.items()).hasSize(6);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.items()).allSatisfy(order -> assertThat(order.externalUserId()).isNotNull());
+        assertThat(page.items()).extracting(OrderReplicaDTO::externalUserId).contains(missingUser.toString());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
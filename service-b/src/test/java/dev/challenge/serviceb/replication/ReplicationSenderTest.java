@@ -0,0 +1,94 @@
+package dev.challenge.serviceb.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.challenge.common.configuration.ReplicationFeignConfig;
+import dev.challenge.common.dto.BatchItemResultDTO;
+import dev.challenge.common.dto.OrderReplicaDTO;
+import dev.challenge.common.id.UuidV7;
+import dev.challenge.common.replication.OutboxEvent;
+import dev.challenge.common.replication.ReplicationAggregate;
+import dev.challenge.common.replication.ReplicationOperation;
+import dev.challenge.common.replication.TopologyProperties.Peer;
+import dev.challenge.common.replication.WireProperties;
+import dev.challenge.common.security.AuthProperties;
+import dev.challenge.serviceb.feign.OrderAClient;
+import dev.challenge.serviceb.feign.UserAClient;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicationSenderTest {
+
+    private static final Peer PEER_A = new Peer(1, "http://service-a:8080");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderAClient orderClient = mock(OrderAClient.class);
+    private final ReplicationSender sender = new ReplicationSender(orderClient, mock(UserAClient.class), objectMapper);
+
+    @Test
+    void conflictMidRunOnlyFailsThatEvent() throws Exception {
+        List<OutboxEvent> run = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            run.add(createEvent(id));
+        }
+        when(orderClient.createOrder(any(), anyInt(), any(), any()))
+                .thenReturn(null, null)
+                .thenThrow(decode(409))
+                .thenReturn(null);
+
+        List<BatchItemResultDTO> results = sender.send(PEER_A, run);
+
+        assertThat(results).extracting(BatchItemResultDTO::status).containsExactly(200, 200, 409, 200);
+        assertThat(results).extracting(BatchItemResultDTO::externalId)
+                .containsExactlyElementsOf(run.stream().map(OutboxEvent::getAggregateId).toList());
+        verify(orderClient, times(4)).createOrder(any(), anyInt(), any(), any());
+    }
+
+    /** Goes through the production error decoder, so a 4xx must surface as a per-call FeignException. */
+    private static FeignException decode(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, PEER_A.url() + "/pedidos", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(status)
+                .reason("Conflict")
+                .request(request)
+                .headers(Map.of())
+                .body("Order already exists", StandardCharsets.UTF_8)
+                .build();
+        Exception decoded = new ReplicationFeignConfig(new AuthProperties("token"), new WireProperties(WireProperties.Format.JSON))
+                .errorDecoder()
+                .decode("OrderAClient#createOrder", response);
+        assertThat(decoded).isInstanceOf(FeignException.class);
+        return (FeignException) decoded;
+    }
+
+    private OutboxEvent createEvent(long id) throws Exception {
+        String externalId = UuidV7.nextString();
+        OrderReplicaDTO payload = new OrderReplicaDTO(null, "Order " + id, BigDecimal.TEN, externalId,
+                "Courier", "11999999999", UuidV7.nextString(), id);
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(ReplicationAggregate.ORDER)
+                .aggregateId(externalId)
+                .operation(ReplicationOperation.CREATE)
+                .payload(objectMapper.writeValueAsString(payload))
+                .targetNode(PEER_A.id())
+                .originNode(2)
+                .build();
+    }
+}
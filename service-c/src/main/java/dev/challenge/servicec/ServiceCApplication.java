@@ -1,13 +1,16 @@
 package dev.challenge.servicec;
 
+import dev.challenge.servicec.config.ExportProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EntityScan(basePackages = "dev.challenge.servicec.readmodel")
 @EnableJpaRepositories(basePackages = "dev.challenge.servicec.repo")
+@EnableConfigurationProperties(ExportProperties.class)
 public class ServiceCApplication {
     public static void main(String[] args) {
         SpringApplication.run(ServiceCApplication.class, args);
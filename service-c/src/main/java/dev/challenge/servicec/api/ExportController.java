@@ -1,17 +1,17 @@
 package dev.challenge.servicec.api;
 
+import dev.challenge.servicec.compression.CompressingStreamer;
+import dev.challenge.servicec.compression.ContentCoding;
 import dev.challenge.servicec.services.ExportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -20,20 +20,36 @@ import java.time.format.DateTimeFormatter;
 public class ExportController {
 
     private final ExportService exportService;
+    private final CompressingStreamer compressingStreamer;
 
     @GetMapping(value = "/export/pedidos", produces = "text/csv; charset=UTF-8")
-    public ResponseEntity<StreamingResponseBody> exportPedidos() {
-        String filename = "pedidos-" + ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv";
+    public ResponseEntity<StreamingResponseBody> exportPedidos(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ContentCoding coding = ContentCoding.negotiate(acceptEncoding);
 
-        StreamingResponseBody body = outputStream -> {
-            try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
-                exportService.writePedidosCsv(writer);
-            }
-        };
+        StreamingResponseBody body = out -> compressingStreamer.write(coding, out, exportService::writePedidosCsv);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename(".csv"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        if (coding != ContentCoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/export/pedidos.csv.gz", produces = "application/gzip")
+    public ResponseEntity<StreamingResponseBody> exportPedidosGzip() {
+        StreamingResponseBody body = out -> compressingStreamer.write(ContentCoding.GZIP, out, exportService::writePedidosCsv);
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename(".csv.gz"))
+                .contentType(MediaType.parseMediaType("application/gzip"))
                 .body(body);
     }
+
+    private static String filename(String extension) {
+        return "pedidos-" + ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + extension;
+    }
 }
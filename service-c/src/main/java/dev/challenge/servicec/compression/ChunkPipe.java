@@ -0,0 +1,129 @@
+package dev.challenge.servicec.compression;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off of byte chunks between the thread producing the export and the thread compressing it.
+ * A flush on the producer side hands over the partial chunk, so the first bytes are not held back.
+ */
+final class ChunkPipe {
+
+    private static final byte[] END = new byte[0];
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final BlockingQueue<byte[]> queue;
+    private final int chunkSize;
+    private volatile boolean aborted;
+    private volatile Throwable failure;
+
+    ChunkPipe(int chunkSize, int capacity) {
+        this.chunkSize = chunkSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void produce(StreamingResponseBody producer) {
+        try (OutputStream sink = new Sink()) {
+            producer.writeTo(sink);
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            try {
+                put(END);
+            } catch (IOException ignored) {
+                // consumer already gone
+            }
+        }
+    }
+
+    void drainTo(OutputStream out) throws IOException {
+        byte[] chunk;
+        while ((chunk = take()) != END) {
+            out.write(chunk);
+            if (queue.isEmpty()) {
+                out.flush();
+            }
+        }
+        if (failure != null) {
+            if (failure instanceof IOException io) throw io;
+            if (failure instanceof RuntimeException runtime) throw runtime;
+            if (failure instanceof Error error) throw error;
+            throw new IllegalStateException("Export producer failed", failure);
+        }
+    }
+
+    /** Called by the consumer when it stops reading; the producer fails on its next hand-off. */
+    void abort() {
+        aborted = true;
+        queue.clear();
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            do {
+                if (aborted) throw new IOException("Export download aborted");
+            } while (!queue.offer(chunk, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing off export bytes");
+        }
+    }
+
+    private byte[] take() throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export bytes");
+        }
+    }
+
+    private final class Sink extends OutputStream {
+
+        private byte[] buffer = new byte[chunkSize];
+        private int position;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == buffer.length) handOffFull();
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (position == buffer.length) handOffFull();
+                int copied = Math.min(length, buffer.length - position);
+                System.arraycopy(bytes, offset, buffer, position, copied);
+                position += copied;
+                offset += copied;
+                length -= copied;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (position == 0) return;
+            put(Arrays.copyOf(buffer, position));
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void handOffFull() throws IOException {
+            put(buffer);
+            buffer = new byte[chunkSize];
+            position = 0;
+        }
+    }
+}
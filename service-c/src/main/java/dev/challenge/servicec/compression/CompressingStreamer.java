@@ -0,0 +1,41 @@
+package dev.challenge.servicec.compression;
+
+import dev.challenge.servicec.config.ExportProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Runs the export on its own virtual thread and compresses on the response thread, so encoding overlaps
+ * with database reads instead of stalling them.
+ */
+@Slf4j
+@Component
+public class CompressingStreamer {
+
+    private final ExportProperties.Compression properties;
+
+    public CompressingStreamer(ExportProperties properties) {
+        this.properties = properties.compression();
+    }
+
+    public void write(ContentCoding coding, OutputStream response, StreamingResponseBody producer) throws IOException {
+        if (coding == ContentCoding.IDENTITY) {
+            producer.writeTo(response);
+            return;
+        }
+
+        ChunkPipe pipe = new ChunkPipe(properties.bufferSize(), properties.queueChunks());
+        Thread.ofVirtual().name("export-producer").start(() -> pipe.produce(producer));
+        try (OutputStream encoder = coding.encoder(response, properties)) {
+            pipe.drainTo(encoder);
+        } catch (IOException | RuntimeException e) {
+            pipe.abort();
+            log.warn("Compressed export stopped. coding={}, err={}", coding.token(), e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dev.challenge.servicec.compression;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import dev.challenge.servicec.config.ExportProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+public enum ContentCoding {
+    ZSTD("zstd"),
+    GZIP("gzip"),
+    IDENTITY("identity");
+
+    private static final double IMPLICIT_IDENTITY_WEIGHT = 0.001;
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding with the highest q-value in {@code Accept-Encoding}. Ties go to zstd, then gzip, then
+     * identity. Identity is the fallback when nothing else is acceptable.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) return IDENTITY;
+
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] fields = part.trim().split(";");
+            String name = fields[0].trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            double weight = 1.0;
+            for (int i = 1; i < fields.length; i++) {
+                String param = fields[i].trim();
+                if (param.startsWith("q=")) weight = quality(param.substring(2));
+            }
+            weights.put(name, weight);
+        }
+
+        ContentCoding best = IDENTITY;
+        double bestWeight = 0;
+        for (ContentCoding coding : values()) {
+            if (coding == ZSTD && !ZstdSupport.AVAILABLE) continue;
+            double weight = weights.getOrDefault(coding.token, weights.getOrDefault("*",
+                    coding == IDENTITY ? IMPLICIT_IDENTITY_WEIGHT : 0));
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    public OutputStream encoder(OutputStream out, ExportProperties.Compression properties) throws IOException {
+        return switch (this) {
+            case ZSTD -> new ZstdOutputStream(out, properties.zstdLevel());
+            case GZIP -> new GZIPOutputStream(out, properties.bufferSize(), true) {
+                {
+                    def.setLevel(properties.gzipLevel());
+                }
+            };
+            case IDENTITY -> out;
+        };
+    }
+
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class ZstdSupport {
+
+        static final boolean AVAILABLE = load();
+
+        private static boolean load() {
+            try {
+                Native.load();
+                return true;
+            } catch (UnsatisfiedLinkError | RuntimeException e) {
+                log.warn("zstd native library unavailable, zstd encoding disabled. err={}", e.getMessage());
+                return false;
+            }
+        }
+    }
+}
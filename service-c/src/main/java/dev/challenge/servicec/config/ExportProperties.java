@@ -0,0 +1,51 @@
+package dev.challenge.servicec.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "export")
+public record ExportProperties(@DefaultValue("cursor") Engine engine,
+                               @DefaultValue("2000") int fetchSize,
+                               @DefaultValue("5000") int flushEvery,
+                               @DefaultValue Parallel parallel,
+                               @DefaultValue Compression compression) {
+
+    public enum Engine {
+        /** Rows read through a JDBC cursor and encoded by OpenCSV. */
+        CURSOR,
+        /** Postgres renders the CSV itself ({@code COPY ... TO STDOUT}) and the bytes are piped to the response. */
+        COPY
+    }
+
+    /**
+     * Range-partitioned export, on when {@code threads > 1}. {@code connections} sizes the dedicated pool that
+     * every parallel export shares, so exports can never drain the application's own pool. It must exceed
+     * {@code threads}: one connection holds the exported snapshot for the whole export, and ranges beyond the
+     * remaining connections just queue for one and time out.
+     */
+    public record Parallel(@DefaultValue("1") int threads,
+                           @DefaultValue("100000") long rangeSize,
+                           @DefaultValue("4") int connections) {
+
+        public Parallel {
+            if (threads > 1 && threads >= connections) {
+                throw new IllegalStateException("export.parallel.connections (" + connections
+                        + ") must exceed export.parallel.threads (" + threads + "), one connection holds the snapshot");
+            }
+        }
+
+        public boolean enabled() {
+            return threads > 1;
+        }
+    }
+
+    /**
+     * Compressed downloads. {@code queueChunks} chunks of {@code bufferSize} bytes sit between the thread that
+     * reads the database and the thread that compresses into the response.
+     */
+    public record Compression(@DefaultValue("65536") int bufferSize,
+                              @DefaultValue("16") int queueChunks,
+                              @DefaultValue("6") int gzipLevel,
+                              @DefaultValue("3") int zstdLevel) {
+    }
+}
@@ -1,56 +1,112 @@
 package dev.challenge.servicec.implementation;
 
 import com.opencsv.CSVWriter;
-import dev.challenge.servicec.readmodel.PedidoB;
-import dev.challenge.servicec.repo.PedidoBRepository;
+import dev.challenge.servicec.config.ExportProperties;
 import dev.challenge.servicec.services.ExportService;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.io.IOException;
-import java.io.Writer;
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.Objects;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ExportServiceImpl implements ExportService {
 
-    private static final String[] HEADER = {
-            "id","descricao","valor","id_usuario","nome_entregador","telefone_entregador"
-    };
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ParallelPedidosExporter parallelExporter;
+    private final ExportProperties.Engine engine;
+    private final boolean parallel;
+    private final int flushEvery;
 
-    private final PedidoBRepository repo;
+    public ExportServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             ParallelPedidosExporter parallelExporter, ExportProperties properties) {
+        // The Postgres driver only streams with a cursor when autocommit is off (the transaction below) and a fetch size is set.
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(properties.fetchSize());
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setReadOnly(true);
+        this.parallelExporter = parallelExporter;
+        this.engine = properties.engine();
+        this.parallel = properties.parallel().enabled();
+        this.flushEvery = properties.flushEvery();
+    }
 
     @Override
-    public void writePedidosCsv(Writer out) throws IOException {
-        List<PedidoB> pedidos = repo.findAll();
-
-        try (CSVWriter writer = new CSVWriter(out)) {
-            writer.writeNext(HEADER, false);
-            for (PedidoB p : pedidos) {
-                writer.writeNext(new String[]{
-                        s(p.getId()),
-                        s(p.getDescricao()),
-                        money(p.getValor()),
-                        s(p.getIdUsuario()),
-                        s(p.getNomeEntregador()),
-                        s(p.getTelefoneEntregador())
-                }, false);
+    public void writePedidosCsv(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        log.info("Exporting orders to CSV... engine={}, parallel={}", engine, parallel);
+
+        AtomicLong rows = new AtomicLong();
+        try {
+            if (parallel) {
+                parallelExporter.write(out, engine, rows);
+            } else {
+                tx.executeWithoutResult(status -> {
+                    switch (engine) {
+                        case COPY -> rows.set(copy(out));
+                        case CURSOR -> cursor(out, rows);
+                    }
+                });
             }
-            writer.flush();
+            log.info("CSV export completed. engine={}, parallel={}, rows={}, elapsedMs={}",
+                    engine, parallel, rows.get(), System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            log.warn("CSV export aborted, client stopped reading. engine={}, rows={}", engine, rows.get());
+            throw e.getCause();
+        } catch (IOException e) {
+            log.warn("CSV export aborted, client stopped reading. engine={}, rows={}", engine, rows.get());
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Error exporting orders to CSV. engine={}, rows={}", engine, rows.get(), e);
+            throw e;
         }
     }
 
-    private static String s(Object o) {
-        if (o == null) return "";
-        if (o instanceof String str) return str;
-        return String.valueOf(o);
+    private long copy(OutputStream out) {
+        Long copied = jdbc.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(PedidosCsv.COPY_ALL, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+
+    private void cursor(OutputStream out, AtomicLong rows) {
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.writeNext(PedidosCsv.HEADER, false);
+            writer.flush();
+
+            jdbc.query(PedidosCsv.SELECT_ALL, rs -> {
+                writer.writeNext(PedidosCsv.row(rs), false);
+                if (rows.incrementAndGet() % flushEvery == 0) {
+                    flush(writer);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private static String money(BigDecimal v) {
-        if (v == null) return "";
-        return v.stripTrailingZeros().toPlainString();
+    private static void flush(CSVWriter writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,173 @@
+package dev.challenge.servicec.implementation;
+
+import com.opencsv.CSVWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.challenge.servicec.config.ExportProperties;
+import dev.challenge.servicec.config.ExportProperties.Engine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits {@code pedido} into id ranges between min(id) and max(id) and renders them concurrently on virtual
+ * threads. At most {@code threads} ranges are in flight per export; their chunks are written strictly in id
+ * order, so memory stays bounded by the window. Ranges run on a dedicated pool of {@code connections}
+ * connections, each in its own read-only transaction. A coordinating REPEATABLE READ transaction exports its
+ * snapshot ({@code pg_export_snapshot()}) and stays open until the last range is written; every range
+ * transaction imports it ({@code SET TRANSACTION SNAPSHOT}), so the file is one point-in-time view of the table.
+ */
+@Slf4j
+@Component
+public class ParallelPedidosExporter {
+
+    private record Bounds(long min, long max) {}
+
+    private record Chunk(long rows, ByteArrayOutputStream bytes) {}
+
+    private final HikariDataSource pool;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate snapshotTx;
+    private final int threads;
+    private final long rangeSize;
+
+    public ParallelPedidosExporter(DataSourceProperties dataSourceProperties, ExportProperties properties) {
+        ExportProperties.Parallel parallel = properties.parallel();
+        this.pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.pool.setPoolName("export-pool");
+        this.pool.setMaximumPoolSize(parallel.connections());
+        this.pool.setMinimumIdle(0);
+        this.pool.setReadOnly(true);
+        this.jdbc = new JdbcTemplate(pool);
+        this.jdbc.setFetchSize(properties.fetchSize());
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(pool);
+        // An exported snapshot can only be imported by REPEATABLE READ or SERIALIZABLE transactions
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setReadOnly(true);
+        this.tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setReadOnly(true);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.threads = parallel.threads();
+        this.rangeSize = parallel.rangeSize();
+    }
+
+    @PreDestroy
+    void close() {
+        pool.close();
+    }
+
+    public void write(OutputStream out, Engine engine, AtomicLong rows) throws IOException {
+        out.write(PedidosCsv.HEADER_LINE);
+        out.flush();
+
+        try {
+            snapshotTx.executeWithoutResult(status -> {
+                String snapshot = jdbc.queryForObject("SELECT pg_export_snapshot()", String.class);
+                Bounds bounds = jdbc.queryForObject("SELECT min(id), max(id) FROM pedido",
+                        (rs, i) -> rs.getObject(1) == null ? null : new Bounds(rs.getLong(1), rs.getLong(2)));
+                if (bounds == null) return;
+
+                log.info("Parallel export ranges planned. minId={}, maxId={}, rangeSize={}, threads={}, snapshot={}",
+                        bounds.min(), bounds.max(), rangeSize, threads, snapshot);
+                try {
+                    writeRanges(out, engine, rows, bounds, snapshot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRanges(OutputStream out, Engine engine, AtomicLong rows, Bounds bounds, String snapshot)
+            throws IOException {
+        Deque<Future<Chunk>> window = new ArrayDeque<>(threads);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                long next = bounds.min();
+                boolean planned = false;
+                while (!planned || !window.isEmpty()) {
+                    while (!planned && window.size() < threads) {
+                        long from = next;
+                        long to = bounds.max() - from < rangeSize ? bounds.max() : from + rangeSize - 1;
+                        window.add(executor.submit(() -> fetch(engine, snapshot, from, to)));
+                        planned = to == bounds.max();
+                        next = to + 1;
+                    }
+                    Chunk chunk = await(window.poll());
+                    chunk.bytes().writeTo(out);
+                    out.flush();
+                    rows.addAndGet(chunk.rows());
+                }
+            } finally {
+                // Abandoned ranges must not keep the executor's close() waiting
+                window.forEach(pending -> pending.cancel(true));
+            }
+        }
+    }
+
+    private Chunk fetch(Engine engine, String snapshot, long from, long to) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Long rows = tx.execute(status -> {
+            // Must be the first statement of the transaction; the id comes from pg_export_snapshot(), not from input
+            jdbc.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+            return switch (engine) {
+                case COPY -> jdbc.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(PedidosCsv.copyRange(from, to), bytes);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                case CURSOR -> {
+                    long[] count = {0};
+                    try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+                        jdbc.query(PedidosCsv.SELECT_RANGE, rs -> {
+                            writer.writeNext(PedidosCsv.row(rs), false);
+                            count[0]++;
+                        }, from, to);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    yield count[0];
+                }
+            };
+        });
+        return new Chunk(rows != null ? rows : 0, bytes);
+    }
+
+    private static Chunk await(Future<Chunk> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an export range", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Export range failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.challenge.servicec.implementation;
+
+import com.opencsv.CSVWriter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Column layout and formatting of the orders CSV, shared by the sequential and parallel exports. */
+final class PedidosCsv {
+
+    static final String[] HEADER = {
+            "id","descricao","valor","id_usuario","nome_entregador","telefone_entregador"
+    };
+
+    static final byte[] HEADER_LINE = (String.join(",", HEADER) + CSVWriter.DEFAULT_LINE_END)
+            .getBytes(StandardCharsets.UTF_8);
+
+    static final String SELECT_ALL = """
+            SELECT id, descricao, valor, id_usuario, nome_entregador, telefone_entregador
+              FROM pedido
+             ORDER BY id""";
+
+    static final String SELECT_RANGE = """
+            SELECT id, descricao, valor, id_usuario, nome_entregador, telefone_entregador
+              FROM pedido
+             WHERE id BETWEEN ? AND ?
+             ORDER BY id""";
+
+    // trim_scale matches money(): 10.50 -> 10.5, 100.00 -> 100
+    private static final String COPY_SELECT = """
+            SELECT id, descricao, trim_scale(valor) AS valor, id_usuario, nome_entregador, telefone_entregador
+              FROM pedido""";
+
+    static final String COPY_ALL = "COPY (" + COPY_SELECT + " ORDER BY id) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    private PedidosCsv() {
+    }
+
+    /** COPY cannot take bind parameters; the bounds are numeric so they are inlined. */
+    static String copyRange(long from, long to) {
+        return "COPY (" + COPY_SELECT + " WHERE id BETWEEN " + from + " AND " + to + " ORDER BY id) TO STDOUT WITH (FORMAT csv)";
+    }
+
+    static String[] row(ResultSet rs) throws SQLException {
+        return new String[]{
+                s(rs.getObject("id")),
+                s(rs.getString("descricao")),
+                money(rs.getBigDecimal("valor")),
+                s(rs.getObject("id_usuario")),
+                s(rs.getString("nome_entregador")),
+                s(rs.getString("telefone_entregador"))
+        };
+    }
+
+    private static String s(Object o) {
+        if (o == null) return "";
+        if (o instanceof String str) return str;
+        return String.valueOf(o);
+    }
+
+    private static String money(BigDecimal v) {
+        if (v == null) return "";
+        return v.stripTrailingZeros().toPlainString();
+    }
+}
@@ -14,7 +14,8 @@ import lombok.*;
 public class UsuarioB {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_id_seq")
+    @SequenceGenerator(name = "usuario_id_seq", sequenceName = "usuario_id_seq", allocationSize = 50)
     @Column(name = "id")
     @ExcelCellName("ID do Usuário")
     private Long id;
@@ -1,8 +1,8 @@
 package dev.challenge.servicec.services;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
 
 public interface ExportService {
-    void writePedidosCsv(Writer out) throws IOException;
+    void writePedidosCsv(OutputStream out) throws IOException;
 }